@@ -0,0 +1,21 @@
+package com.moakiee.meplacementtool.benchmark;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.server.Bootstrap;
+
+/**
+ * Brings up the vanilla registries so benchmarks can create items and read NBT without a game instance.
+ */
+final class BenchmarkBootstrap {
+
+    private static boolean done;
+
+    private BenchmarkBootstrap() {}
+
+    static synchronized void init() {
+        if (done) return;
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+        done = true;
+    }
+}
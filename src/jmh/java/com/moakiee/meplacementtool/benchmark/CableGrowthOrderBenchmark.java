@@ -0,0 +1,106 @@
+package com.moakiee.meplacementtool.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongPredicate;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+import net.minecraft.core.BlockPos;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.moakiee.meplacementtool.CableGrowthOrder;
+import com.moakiee.meplacementtool.CablePositions;
+import com.moakiee.meplacementtool.PositionCursor;
+
+/**
+ * Growth ordering of Cable Placement Tool selections, for a square selection of the given edge length with
+ * the existing network along its far edge. The grid merges of selection order and growth order are reported
+ * as the {@link Merges} secondary results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CableGrowthOrderBenchmark {
+
+    @Param({"8", "32", "128"})
+    public int size;
+
+    private long[] fill;
+    private long[] branching;
+    private LongPredicate touchesNetwork;
+    private long fillMerges, fillGrowthMerges;
+    private long branchingMerges, branchingGrowthMerges;
+
+    /**
+     * Grid merges of the benchmarked selection, in selection order and in growth order.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Merges {
+        public long selectionOrder;
+        public long growthOrder;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            selectionOrder = 0;
+            growthOrder = 0;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.init();
+        BlockPos p1 = new BlockPos(0, 64, 0);
+        BlockPos p3 = new BlockPos(size - 1, 64, size - 1);
+        fill = toArray(CablePositions.box(p1, p3));
+        // Branch interval of 4 along X, branches run along Z
+        branching = toArray(CablePositions.branch(p1, new BlockPos(4, 64, 0), p3));
+        int lastZ = size - 1;
+        touchesNetwork = pos -> BlockPos.getZ(pos) == lastZ;
+
+        fillMerges = CableGrowthOrder.countGridMerges(fill, touchesNetwork);
+        fillGrowthMerges = CableGrowthOrder.countGridMerges(CableGrowthOrder.order(fill, touchesNetwork), touchesNetwork);
+        branchingMerges = CableGrowthOrder.countGridMerges(branching, touchesNetwork);
+        branchingGrowthMerges = CableGrowthOrder.countGridMerges(
+                CableGrowthOrder.order(branching, touchesNetwork), touchesNetwork);
+    }
+
+    private static long[] toArray(PositionCursor cursor) {
+        LongArrayList packed = new LongArrayList();
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        while (cursor.next(pos)) {
+            packed.add(pos.asLong());
+        }
+        return packed.toLongArray();
+    }
+
+    @Benchmark
+    public long[] orderFill(Merges merges) {
+        merges.selectionOrder = fillMerges;
+        merges.growthOrder = fillGrowthMerges;
+        return CableGrowthOrder.order(fill, touchesNetwork);
+    }
+
+    @Benchmark
+    public long[] orderBranching(Merges merges) {
+        merges.selectionOrder = branchingMerges;
+        merges.growthOrder = branchingGrowthMerges;
+        return CableGrowthOrder.order(branching, touchesNetwork);
+    }
+}
@@ -0,0 +1,69 @@
+package com.moakiee.meplacementtool.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.minecraft.core.BlockPos;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.moakiee.meplacementtool.ItemMECablePlacementTool;
+import com.moakiee.meplacementtool.ItemMECablePlacementTool.PlacementMode;
+
+/**
+ * Position generation of the Cable Placement Tool for a square selection of the given edge length.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CablePositionsBenchmark {
+
+    @Param({"8", "32", "128"})
+    public int size;
+
+    private BlockPos p1;
+    private BlockPos p2;
+    private BlockPos p3;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.init();
+        p1 = new BlockPos(0, 64, 0);
+        // Branch interval of 4 along X, branches run along Z
+        p2 = new BlockPos(4, 64, 0);
+        p3 = new BlockPos(size - 1, 64, size - 1);
+    }
+
+    @Benchmark
+    public List<BlockPos> line() {
+        return ItemMECablePlacementTool.calculatePositions(p1, p1.offset(size - 1, 0, 0), PlacementMode.LINE);
+    }
+
+    @Benchmark
+    public List<BlockPos> planeFill() {
+        return ItemMECablePlacementTool.calculatePositions(p1, p3, PlacementMode.PLANE_FILL);
+    }
+
+    @Benchmark
+    public List<BlockPos> planeBranching() {
+        return ItemMECablePlacementTool.calculateBranchPositions(p1, p2, p3);
+    }
+
+    @Benchmark
+    public List<BlockPos> lineBlocks() {
+        return ItemMECablePlacementTool.getLineBlocks(0, 64, 0, 0, 64, size - 1);
+    }
+}
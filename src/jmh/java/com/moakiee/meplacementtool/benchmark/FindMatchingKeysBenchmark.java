@@ -0,0 +1,105 @@
+package com.moakiee.meplacementtool.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import appeng.api.config.Actionable;
+import appeng.api.networking.security.IActionSource;
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.AEKey;
+import appeng.api.stacks.KeyCounter;
+import appeng.api.storage.MEStorage;
+
+import com.moakiee.meplacementtool.Config;
+
+/**
+ * {@link Config#findAllMatchingKeys} against an in-memory ME storage holding {@code keys} distinct item keys.
+ * "ignore" resolves the target by item id through the cached inventory, "exact" by its full NBT key.
+ * The cost of keeping the cached inventory current is measured by {@link ItemKeyIndexUpdateBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4G")
+public class FindMatchingKeysBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int keys;
+
+    @Param({"ignore", "exact"})
+    public String nbt;
+
+    private MEStorage storage;
+    private KeyCounter cachedInventory;
+    private ItemStack target;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.init();
+        Config.nbtWhitelistItems = Set.of();
+        Config.nbtWhitelistMods = "exact".equals(nbt) ? Set.of("minecraft") : Set.of();
+
+        // Items must not be touched before bootstrap, so the palette is built here
+        Item[] items = { Items.STONE, Items.OAK_PLANKS, Items.GLASS, Items.IRON_INGOT };
+        KeyCounter stored = new KeyCounter();
+        for (int i = 0; i < keys; i++) {
+            ItemStack stack = new ItemStack(items[i % items.length]);
+            stack.getOrCreateTag().putInt("id", i);
+            stored.add(AEItemKey.of(stack), 1 + i % 64);
+        }
+        storage = new SyntheticStorage(stored);
+        cachedInventory = stored;
+
+        // Pick a key from the middle of the storage
+        target = new ItemStack(Items.STONE);
+        target.getOrCreateTag().putInt("id", keys / 2 - (keys / 2) % items.length);
+    }
+
+    @Benchmark
+    public List<Map.Entry<AEItemKey, Long>> findAllMatchingKeys() {
+        return Config.findAllMatchingKeys(storage, cachedInventory, target);
+    }
+
+    record SyntheticStorage(KeyCounter stored) implements MEStorage {
+
+        @Override
+        public long extract(AEKey what, long amount, Actionable mode, IActionSource source) {
+            long available = stored.get(what);
+            if (mode == Actionable.MODULATE) {
+                throw new UnsupportedOperationException("read-only benchmark storage");
+            }
+            return Math.min(available, amount);
+        }
+
+        @Override
+        public void getAvailableStacks(KeyCounter out) {
+            out.addAll(stored);
+        }
+
+        @Override
+        public Component getDescription() {
+            return Component.literal("benchmark");
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.moakiee.meplacementtool.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.KeyCounter;
+import appeng.api.storage.MEStorage;
+
+import com.moakiee.meplacementtool.ItemKeyIndex;
+
+/**
+ * Cost of bringing {@link ItemKeyIndex} up to date after the storage changed, followed by one lookup of an item
+ * with a few variants, for a storage holding {@code keys} distinct item keys. {@link #fullRebuild} reads the
+ * whole storage into a fresh inventory, as a scan-based index has to; {@link #changeNotification} applies a
+ * single key change to the cached inventory, as a grid storage change notification does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4G")
+public class ItemKeyIndexUpdateBenchmark {
+
+    private static final int VARIANTS = 8;
+
+    @Param({"10000", "100000", "1000000"})
+    public int keys;
+
+    private MEStorage storage;
+    private KeyCounter cachedInventory;
+    private AEItemKey changing;
+    private long delta = 1;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.init();
+
+        Item[] items = { Items.STONE, Items.OAK_PLANKS, Items.GLASS, Items.IRON_INGOT };
+        KeyCounter stored = new KeyCounter();
+        for (int i = 0; i < keys; i++) {
+            ItemStack stack = new ItemStack(items[i % items.length]);
+            stack.getOrCreateTag().putInt("id", i);
+            stored.add(AEItemKey.of(stack), 1 + i % 64);
+        }
+        for (int i = 0; i < VARIANTS; i++) {
+            ItemStack stack = new ItemStack(Items.DIAMOND);
+            stack.getOrCreateTag().putInt("id", i);
+            changing = AEItemKey.of(stack);
+            stored.add(changing, 1);
+        }
+        storage = new FindMatchingKeysBenchmark.SyntheticStorage(stored);
+        cachedInventory = stored;
+    }
+
+    @Benchmark
+    public List<Map.Entry<AEItemKey, Long>> fullRebuild() {
+        KeyCounter fresh = new KeyCounter();
+        storage.getAvailableStacks(fresh);
+        return ItemKeyIndex.findAll(storage, fresh, Items.DIAMOND);
+    }
+
+    @Benchmark
+    public List<Map.Entry<AEItemKey, Long>> changeNotification() {
+        // Alternate so the stored amount stays positive
+        cachedInventory.add(changing, delta);
+        delta = -delta;
+        return ItemKeyIndex.findAll(storage, cachedInventory, Items.DIAMOND);
+    }
+}
@@ -0,0 +1,56 @@
+package com.moakiee.meplacementtool.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.moakiee.meplacementtool.ItemMultiblockPlacementTool.DirectionMode;
+import com.moakiee.meplacementtool.PlacementBfs;
+
+/**
+ * {@link PlacementBfs#findPositions} over a synthetic floor, as run on every multiblock tool click and preview frame.
+ * Roughly one cell in eight has no support so the locked-mode fallback and the candidate cap are exercised too.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlacementBfsBenchmark {
+
+    @Param({"AUTO", "NORTH_SOUTH", "EAST_WEST", "VERTICAL"})
+    public DirectionMode mode;
+
+    @Param({"1", "16", "64", "256", "1024"})
+    public int count;
+
+    private final BlockPos start = new BlockPos(0, 64, 0);
+
+    @Benchmark
+    public List<BlockPos> findPositions() {
+        return PlacementBfs.findPositions(start, count, Direction.UP, mode,
+                PlacementBfsBenchmark::hasSupport, PlacementBfsBenchmark::canPlace);
+    }
+
+    private static boolean hasSupport(BlockPos pos) {
+        return ((pos.getX() * 31 + pos.getY() * 7 + pos.getZ() * 17) & 7) != 0;
+    }
+
+    private static boolean canPlace(BlockPos pos) {
+        return true;
+    }
+}
@@ -0,0 +1,79 @@
+package com.moakiee.meplacementtool.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraftforge.items.ItemStackHandler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.moakiee.meplacementtool.WandNbt;
+
+/**
+ * Reading the wand's 18 configured slots, which happens on every placement and every HUD frame.
+ * "items" is the current layout (cfg.items.Items), "legacy" is the old 9-slot handler tag.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WandNbtBenchmark {
+
+    @Param({"items", "legacy"})
+    public String format;
+
+    private CompoundTag cfg;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.init();
+        if ("legacy".equals(format)) {
+            ItemStackHandler handler = new ItemStackHandler(9);
+            for (int i = 0; i < 9; i++) {
+                handler.setStackInSlot(i, stack(i));
+            }
+            cfg = handler.serializeNBT();
+        } else {
+            ListTag list = new ListTag();
+            for (int i = 0; i < 18; i++) {
+                CompoundTag itemTag = new CompoundTag();
+                itemTag.putInt("Slot", i);
+                stack(i).save(itemTag);
+                list.add(itemTag);
+            }
+            CompoundTag items = new CompoundTag();
+            items.put("Items", list);
+            cfg = new CompoundTag();
+            cfg.put("items", items);
+        }
+    }
+
+    @Benchmark
+    public ItemStackHandler readInventory() {
+        return WandNbt.readInventory(cfg);
+    }
+
+    private static ItemStack stack(int i) {
+        ItemStack stack = new ItemStack(i % 2 == 0 ? Items.STONE : Items.OAK_PLANKS);
+        // Half of the slots carry NBT, like configured AE2 parts do
+        if (i % 4 < 2) {
+            stack.getOrCreateTag().putInt("variant", i);
+        }
+        return stack;
+    }
+}
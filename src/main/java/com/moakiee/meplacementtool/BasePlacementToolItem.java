@@ -121,6 +121,31 @@ public abstract class BasePlacementToolItem extends AEBasePoweredItem {
             return null;
         }
 
+        var tag = item.getTag();
+        var link = tag != null ? tag.get(TAG_ACCESS_POINT_POS) : null;
+        var accessPoint = link != null ? LinkedGridCache.get(link) : null;
+        if (accessPoint == null) {
+            accessPoint = resolveAccessPoint(item, serverLevel, sendMessagesTo);
+            if (accessPoint == null) {
+                return null;
+            }
+        }
+
+        var grid = accessPoint.getGrid();
+        if (grid == null) {
+            if (sendMessagesTo != null) {
+                sendMessagesTo.displayClientMessage(PlayerMessages.LinkedNetworkNotFound.text(), true);
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Decode the link and find the access point's block entity, caching it in {@link LinkedGridCache}.
+     */
+    @Nullable
+    private IWirelessAccessPoint resolveAccessPoint(ItemStack item, ServerLevel serverLevel,
+            @Nullable Player sendMessagesTo) {
         var pos = getLinkedPosition(item);
         if (pos == null) {
             if (sendMessagesTo != null) {
@@ -145,13 +170,8 @@ public abstract class BasePlacementToolItem extends AEBasePoweredItem {
             return null;
         }
 
-        var grid = accessPoint.getGrid();
-        if (grid == null) {
-            if (sendMessagesTo != null) {
-                sendMessagesTo.displayClientMessage(PlayerMessages.LinkedNetworkNotFound.text(), true);
-            }
-        }
-        return grid;
+        LinkedGridCache.put(item.getTag().get(TAG_ACCESS_POINT_POS), linkedLevel, pos.pos(), accessPoint);
+        return accessPoint;
     }
     
     /**
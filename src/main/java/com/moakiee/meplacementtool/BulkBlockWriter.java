@@ -0,0 +1,133 @@
+package com.moakiee.meplacementtool;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+import net.minecraft.advancements.CriteriaTriggers;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.BlockItem;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.context.BlockPlaceContext;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.EntityBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.gameevent.GameEvent;
+import net.minecraft.world.phys.shapes.CollisionContext;
+
+/**
+ * Opt-in fast path for the multiblock tool: writes plain blocks straight into their chunk and settles
+ * neighbour and shape updates once per batch instead of once per block.
+ * <p>
+ * Only blocks placed by a plain {@link BlockItem} from a stack without a tag, without a block entity and
+ * allowed by {@link Config#isBlockInBulkAllowlist}, go this way, and only over blocks without a block entity.
+ * Tagged stacks carry state or block entity data ({@code BlockStateTag}, {@code BlockEntityTag}) that only
+ * {@link BlockItem#place} applies. Each write is read back; if the block changed itself the write is
+ * reverted and the caller falls back to {@link BlockItem#place}. Clients are updated through the chunk
+ * holder, which sends one packet per changed section per tick, and light checks are queued to the light
+ * engine, which runs them in batches. The {@code BLOCK_PLACE} game event and the placed-block advancement
+ * trigger fire per write, as {@link BlockItem#place} fires them; the item-used stat comes from
+ * {@code ItemStack#useOn}, which neither path goes through. Server thread only.
+ */
+public final class BulkBlockWriter {
+
+    private final ServerLevel level;
+    // Written since the last flush, in write order
+    private final LongArrayList written = new LongArrayList();
+    private final LongOpenHashSet writtenSet = new LongOpenHashSet();
+
+    public BulkBlockWriter(ServerLevel level) {
+        this.level = level;
+    }
+
+    public static boolean supports(BlockItem item) {
+        return Config.bulkPlacementEnabled
+                && item.getClass() == BlockItem.class
+                && !(item.getBlock() instanceof EntityBlock)
+                && Config.isBlockInBulkAllowlist(item.getBlock());
+    }
+
+    /**
+     * Write the state {@code block} would be placed as in {@code context}.
+     *
+     * @return false if nothing was written and the position needs a regular placement
+     */
+    public boolean place(BlockPlaceContext context, Block block, Player player, ItemStack stack) {
+        if (stack.hasTag() || !context.canPlace()) return false;
+        BlockPos pos = context.getClickedPos();
+        BlockState state = block.getStateForPlacement(context);
+        if (state == null || state.hasBlockEntity()) return false;
+
+        BlockState old = level.getBlockState(pos);
+        if (old.hasBlockEntity() || !state.canSurvive(level, pos)
+                || !level.isUnobstructed(state, pos, CollisionContext.of(player))) {
+            return false;
+        }
+
+        // Heightmaps, light checks and onPlace are handled by the chunk; neighbours wait for flush()
+        if (level.getChunkAt(pos).setBlockState(pos, state, false) == null) return false;
+        if (level.getBlockState(pos) != state) {
+            level.setBlock(pos, old, Block.UPDATE_ALL);
+            return false;
+        }
+
+        level.onBlockStateChange(pos, old, state);
+        level.getChunkSource().blockChanged(pos);
+        state.getBlock().setPlacedBy(level, pos, state, player, stack);
+        if (player instanceof ServerPlayer serverPlayer) {
+            CriteriaTriggers.PLACED_BLOCK.trigger(serverPlayer, pos, stack);
+        }
+        level.gameEvent(GameEvent.BLOCK_PLACE, pos, GameEvent.Context.of(player, state));
+
+        long packed = pos.asLong();
+        if (writtenSet.add(packed)) {
+            written.add(packed);
+        }
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return written.isEmpty();
+    }
+
+    /**
+     * Settle everything written since the last flush: shapes between the written blocks first (fences
+     * joining up), then neighbour and shape updates from the blocks on the edge of the batch.
+     */
+    public void flush() {
+        if (written.isEmpty()) return;
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+
+        for (int i = 0; i < written.size(); i++) {
+            pos.set(written.getLong(i));
+            BlockState state = level.getBlockState(pos);
+            BlockState updated = Block.updateFromNeighbourShapes(state, level, pos);
+            if (updated != state) {
+                level.setBlock(pos, updated, Block.UPDATE_CLIENTS | Block.UPDATE_KNOWN_SHAPE);
+            }
+        }
+
+        for (int i = 0; i < written.size(); i++) {
+            pos.set(written.getLong(i));
+            if (!isOnEdge(pos)) continue;
+            BlockState state = level.getBlockState(pos);
+            level.blockUpdated(pos, state.getBlock());
+            state.updateNeighbourShapes(level, pos, Block.UPDATE_ALL);
+        }
+
+        written.clear();
+        writtenSet.clear();
+    }
+
+    private boolean isOnEdge(BlockPos pos) {
+        for (Direction direction : Direction.values()) {
+            if (!writtenSet.contains(BlockPos.offset(pos.asLong(), direction))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
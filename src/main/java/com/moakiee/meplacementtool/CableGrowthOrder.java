@@ -0,0 +1,122 @@
+package com.moakiee.meplacementtool;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+
+/**
+ * Placement order for the Cable Placement Tool that grows the new cables out of the existing network.
+ * <p>
+ * Cables placed in selection order can start several separate grids (a fill box row that begins away from
+ * the network, a branch reached before its trunk), and AE2 rebuilds grid structures each time two of them
+ * meet. Ordering the cells as a breadth-first front from the cells next to the network, or from a single
+ * seed if none are, makes every new cable join a grid that already exists; disconnected parts of the
+ * selection each grow from their first cell. Pure coordinate math over packed positions.
+ */
+public final class CableGrowthOrder {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private CableGrowthOrder() {
+    }
+
+    /**
+     * The distinct positions of {@code positions} ({@link BlockPos#asLong()}) in growth order.
+     *
+     * @param touchesNetwork whether a position is next to an existing grid node
+     */
+    public static long[] order(long[] positions, LongPredicate touchesNetwork) {
+        LongOpenHashSet remaining = new LongOpenHashSet(positions);
+        long[] ordered = new long[remaining.size()];
+        LongArrayFIFOQueue front = new LongArrayFIFOQueue();
+        int count = 0;
+
+        for (long pos : positions) {
+            if (remaining.contains(pos) && touchesNetwork.test(pos)) {
+                remaining.remove(pos);
+                front.enqueue(pos);
+            }
+        }
+        count = grow(front, remaining, ordered, count);
+
+        for (long pos : positions) {
+            if (remaining.remove(pos)) {
+                front.enqueue(pos);
+                count = grow(front, remaining, ordered, count);
+            }
+        }
+        return count == ordered.length ? ordered : Arrays.copyOf(ordered, count);
+    }
+
+    private static int grow(LongArrayFIFOQueue front, LongOpenHashSet remaining, long[] ordered, int count) {
+        while (!front.isEmpty()) {
+            long pos = front.dequeueLong();
+            ordered[count++] = pos;
+            for (Direction direction : DIRECTIONS) {
+                long next = BlockPos.offset(pos, direction);
+                if (remaining.remove(next)) {
+                    front.enqueue(next);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Number of grid merges placing cables in the given order causes: each cable that connects two or more
+     * grids (cables placed before it, or the existing network) merges them into one. Cables are assumed to
+     * connect to every neighbouring cable, whatever their colour.
+     */
+    public static int countGridMerges(long[] order, LongPredicate touchesNetwork) {
+        // Union-find over placed cells; index 0 stands for the existing network
+        int[] parent = new int[order.length + 1];
+        Long2IntOpenHashMap indexOf = new Long2IntOpenHashMap(order.length);
+        int merges = 0;
+        int[] roots = new int[DIRECTIONS.length + 1];
+
+        for (int i = 0; i < order.length; i++) {
+            int self = i + 1;
+            parent[self] = self;
+            int distinct = 0;
+            if (touchesNetwork.test(order[i])) {
+                distinct = addRoot(roots, distinct, find(parent, 0));
+            }
+            for (Direction direction : DIRECTIONS) {
+                int neighbour = indexOf.getOrDefault(BlockPos.offset(order[i], direction), -1);
+                if (neighbour >= 0) {
+                    distinct = addRoot(roots, distinct, find(parent, neighbour));
+                }
+            }
+            if (distinct > 1) {
+                merges += distinct - 1;
+            }
+            for (int r = 0; r < distinct; r++) {
+                parent[roots[r]] = self;
+            }
+            indexOf.put(order[i], self);
+        }
+        return merges;
+    }
+
+    private static int addRoot(int[] roots, int count, int root) {
+        for (int i = 0; i < count; i++) {
+            if (roots[i] == root) return count;
+        }
+        roots[count] = root;
+        return count + 1;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+}
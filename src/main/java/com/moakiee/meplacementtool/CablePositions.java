@@ -0,0 +1,342 @@
+package com.moakiee.meplacementtool;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.minecraft.core.BlockPos;
+
+import com.moakiee.meplacementtool.ItemMECablePlacementTool.PlacementMode;
+
+/**
+ * Position geometry for the Cable Placement Tool.
+ * Everything here is pure math over coordinates (no world access), and every shape is exposed
+ * as a lazy {@link PositionCursor} so that large selections are never materialised.
+ */
+public final class CablePositions {
+
+    private CablePositions() {
+    }
+
+    /**
+     * Positions for a two-point mode.
+     * LINE: axis-aligned line (findLine already returns an axis-aligned endpoint).
+     * PLANE_FILL: the full box between both points.
+     * PLANE_BRANCHING: empty, see {@link #branch(BlockPos, BlockPos, BlockPos)}.
+     * ROUTE: empty, the cells depend on the world, see {@link CableRouter}.
+     */
+    public static PositionCursor forMode(BlockPos p1, BlockPos p2, PlacementMode mode) {
+        if (mode == PlacementMode.LINE) {
+            return line(p1.getX(), p1.getY(), p1.getZ(), p2.getX(), p2.getY(), p2.getZ());
+        } else if (mode == PlacementMode.PLANE_FILL) {
+            return box(p1, p2);
+        }
+        return new BoxCursor(0, 0, 0, -1, -1, -1);
+    }
+
+    /**
+     * {minX, minY, minZ, maxX, maxY, maxZ} of {@link #forMode} for LINE and PLANE_FILL, without walking it.
+     */
+    public static int[] bounds(BlockPos p1, BlockPos p2, PlacementMode mode) {
+        BlockPos end = p2;
+        if (mode == PlacementMode.LINE) {
+            // Only the first differing axis is walked, see line()
+            end = p1.getX() != p2.getX() ? new BlockPos(p2.getX(), p1.getY(), p1.getZ())
+                    : p1.getY() != p2.getY() ? new BlockPos(p1.getX(), p2.getY(), p1.getZ())
+                    : new BlockPos(p1.getX(), p1.getY(), p2.getZ());
+        }
+        return boundsOf(p1, end);
+    }
+
+    private static int[] boundsOf(BlockPos p1, BlockPos p2) {
+        return new int[] {
+                Math.min(p1.getX(), p2.getX()), Math.min(p1.getY(), p2.getY()), Math.min(p1.getZ(), p2.getZ()),
+                Math.max(p1.getX(), p2.getX()), Math.max(p1.getY(), p2.getY()), Math.max(p1.getZ(), p2.getZ()) };
+    }
+
+    /**
+     * Axis-aligned line starting at the first point. Only the first differing axis (X, then Y, then Z)
+     * is walked, matching effortless-building's Line.getLineBlocks().
+     */
+    public static PositionCursor line(int x1, int y1, int z1, int x2, int y2, int z2) {
+        if (x1 != x2) {
+            return new LineCursor(x1, y1, z1, Integer.signum(x2 - x1), 0, 0, Math.abs((long) x2 - x1) + 1L);
+        } else if (y1 != y2) {
+            return new LineCursor(x1, y1, z1, 0, Integer.signum(y2 - y1), 0, Math.abs((long) y2 - y1) + 1L);
+        }
+        return new LineCursor(x1, y1, z1, 0, 0, z1 < z2 ? 1 : -1, Math.abs((long) z2 - z1) + 1L);
+    }
+
+    public static PositionCursor box(BlockPos p1, BlockPos p2) {
+        return new BoxCursor(
+                Math.min(p1.getX(), p2.getX()), Math.min(p1.getY(), p2.getY()), Math.min(p1.getZ(), p2.getZ()),
+                Math.max(p1.getX(), p2.getX()), Math.max(p1.getY(), p2.getY()), Math.max(p1.getZ(), p2.getZ()));
+    }
+
+    /**
+     * Trunk and branches for PLANE_BRANCHING, in trunk order with each branch following its trunk cell.
+     */
+    public static PositionCursor branch(BlockPos p1, BlockPos p2, BlockPos p3) {
+        return new BranchCursor(BranchLayout.of(p1, p2, p3));
+    }
+
+    public static List<BlockPos> toList(PositionCursor cursor) {
+        List<BlockPos> list = new ArrayList<>((int) Math.min(cursor.size(), 1 << 16));
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        cursor.reset();
+        while (cursor.next(pos)) {
+            list.add(pos.immutable());
+        }
+        cursor.reset();
+        return list;
+    }
+
+    private static long saturatedMultiply(long a, long b) {
+        long hi = Math.multiplyHigh(a, b);
+        long lo = a * b;
+        if ((hi == 0 && lo >= 0) || (hi == -1 && lo < 0)) {
+            return lo;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long r = a + b;
+        return ((a ^ r) & (b ^ r)) < 0 ? Long.MAX_VALUE : r;
+    }
+
+    /**
+     * Axes and extents of a PLANE_BRANCHING selection.
+     * Point 1 (A) is the start, point 2 (B) picks the trunk axis and branch interval,
+     * point 3 (C) forms the plane with A and sets trunk and branch length.
+     * Axes are 0=X, 1=Y, 2=Z.
+     */
+    public record BranchLayout(BlockPos origin, int trunkAxis, int trunkDir, int trunkLength, int interval,
+            int branchAxis, int branchDir, int branchLength) {
+
+        public static BranchLayout of(BlockPos p1, BlockPos p2, BlockPos p3) {
+            // P1 to P2 determines trunk direction and branch interval
+            int dx12 = p2.getX() - p1.getX();
+            int dy12 = p2.getY() - p1.getY();
+            int dz12 = p2.getZ() - p1.getZ();
+
+            // Find the dominant axis for trunk direction (largest absolute delta)
+            int absDx = Math.abs(dx12);
+            int absDy = Math.abs(dy12);
+            int absDz = Math.abs(dz12);
+
+            int trunkAxis;
+            int trunkDir;
+            int interval;
+
+            if (absDx >= absDy && absDx >= absDz) {
+                trunkAxis = 0;
+                trunkDir = dx12 == 0 ? 1 : Integer.signum(dx12);
+                interval = Math.max(1, absDx);
+            } else if (absDy >= absDx && absDy >= absDz) {
+                trunkAxis = 1;
+                trunkDir = dy12 == 0 ? 1 : Integer.signum(dy12);
+                interval = Math.max(1, absDy);
+            } else {
+                trunkAxis = 2;
+                trunkDir = dz12 == 0 ? 1 : Integer.signum(dz12);
+                interval = Math.max(1, absDz);
+            }
+
+            // P1 to P3 determines the extent of the plane
+            int[] d13 = { p3.getX() - p1.getX(), p3.getY() - p1.getY(), p3.getZ() - p1.getZ() };
+            int trunkLength = Math.abs(d13[trunkAxis]);
+
+            // Branch axis: the other axis with the largest delta (ties go to the lower axis)
+            int a = trunkAxis == 0 ? 1 : 0;
+            int b = trunkAxis == 2 ? 1 : 2;
+            int branchAxis = Math.abs(d13[a]) >= Math.abs(d13[b]) ? a : b;
+            int branchLength = Math.abs(d13[branchAxis]);
+            int branchDir = d13[branchAxis] == 0 ? 1 : Integer.signum(d13[branchAxis]);
+
+            return new BranchLayout(p1.immutable(), trunkAxis, trunkDir, trunkLength, interval,
+                    branchAxis, branchDir, branchLength);
+        }
+
+        public int branchCount() {
+            return trunkLength / interval + 1;
+        }
+
+        public long size() {
+            return saturatedAdd(trunkLength + 1L, saturatedMultiply(branchCount(), branchLength));
+        }
+
+        /**
+         * {minX, minY, minZ, maxX, maxY, maxZ} of the trunk and all branches, without walking them.
+         */
+        public int[] bounds() {
+            // Trunk and branches are perpendicular, so the far corner spans the box with the origin
+            BlockPos.MutableBlockPos far = trunkPos(trunkLength, new BlockPos.MutableBlockPos());
+            return boundsOf(origin, offset(far, branchAxis, branchLength * branchDir));
+        }
+
+        /**
+         * Write the trunk cell at step {@code t} into {@code out}.
+         */
+        public BlockPos.MutableBlockPos trunkPos(int t, BlockPos.MutableBlockPos out) {
+            out.set(origin);
+            return offset(out, trunkAxis, t * trunkDir);
+        }
+
+        public PositionCursor trunk() {
+            int[] step = axisStep(trunkAxis, trunkDir);
+            return new LineCursor(origin.getX(), origin.getY(), origin.getZ(), step[0], step[1], step[2],
+                    trunkLength + 1L);
+        }
+
+        /**
+         * A single branch including its trunk cell, for the given trunk step (a multiple of the interval).
+         */
+        public PositionCursor branchAt(int t) {
+            BlockPos.MutableBlockPos start = trunkPos(t, new BlockPos.MutableBlockPos());
+            int[] step = axisStep(branchAxis, branchDir);
+            return new LineCursor(start.getX(), start.getY(), start.getZ(), step[0], step[1], step[2],
+                    branchLength + 1L);
+        }
+
+        private static BlockPos.MutableBlockPos offset(BlockPos.MutableBlockPos pos, int axis, int amount) {
+            if (axis == 0) return pos.setX(pos.getX() + amount);
+            if (axis == 1) return pos.setY(pos.getY() + amount);
+            return pos.setZ(pos.getZ() + amount);
+        }
+
+        private static int[] axisStep(int axis, int dir) {
+            int[] step = new int[3];
+            step[axis] = dir;
+            return step;
+        }
+    }
+
+    private static final class LineCursor implements PositionCursor {
+        private final int x, y, z, stepX, stepY, stepZ;
+        private final long length;
+        private long index;
+
+        LineCursor(int x, int y, int z, int stepX, int stepY, int stepZ, long length) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.stepX = stepX;
+            this.stepY = stepY;
+            this.stepZ = stepZ;
+            this.length = length;
+        }
+
+        @Override
+        public boolean next(BlockPos.MutableBlockPos out) {
+            if (index >= length) return false;
+            int i = (int) index++;
+            out.set(x + i * stepX, y + i * stepY, z + i * stepZ);
+            return true;
+        }
+
+        @Override
+        public long size() {
+            return length;
+        }
+
+        @Override
+        public void reset() {
+            index = 0;
+        }
+    }
+
+    private static final class BoxCursor implements PositionCursor {
+        private final int minX, minY, minZ, maxX, maxY, maxZ;
+        private int x, y, z;
+        private boolean done;
+
+        BoxCursor(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.maxZ = maxZ;
+            reset();
+        }
+
+        @Override
+        public boolean next(BlockPos.MutableBlockPos out) {
+            if (done) return false;
+            out.set(x, y, z);
+            // Same order as the old nested loops: X outermost, Z innermost
+            if (z < maxZ) {
+                z++;
+            } else {
+                z = minZ;
+                if (y < maxY) {
+                    y++;
+                } else {
+                    y = minY;
+                    if (x < maxX) {
+                        x++;
+                    } else {
+                        done = true;
+                    }
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public long size() {
+            if (maxX < minX || maxY < minY || maxZ < minZ) return 0;
+            long sx = (long) maxX - minX + 1;
+            long sy = (long) maxY - minY + 1;
+            long sz = (long) maxZ - minZ + 1;
+            return saturatedMultiply(saturatedMultiply(sx, sy), sz);
+        }
+
+        @Override
+        public void reset() {
+            x = minX;
+            y = minY;
+            z = minZ;
+            done = maxX < minX || maxY < minY || maxZ < minZ;
+        }
+    }
+
+    private static final class BranchCursor implements PositionCursor {
+        private final BranchLayout layout;
+        private int t;
+        // 0 = trunk cell of step t, 1..branchLength = branch cells
+        private int b;
+
+        BranchCursor(BranchLayout layout) {
+            this.layout = layout;
+        }
+
+        @Override
+        public boolean next(BlockPos.MutableBlockPos out) {
+            if (t > layout.trunkLength()) return false;
+            layout.trunkPos(t, out);
+            if (b > 0) {
+                BranchLayout.offset(out, layout.branchAxis(), b * layout.branchDir());
+            }
+            boolean hasBranch = t % layout.interval() == 0;
+            if (hasBranch && b < layout.branchLength()) {
+                b++;
+            } else {
+                b = 0;
+                t++;
+            }
+            return true;
+        }
+
+        @Override
+        public long size() {
+            return layout.size();
+        }
+
+        @Override
+        public void reset() {
+            t = 0;
+            b = 0;
+        }
+    }
+}
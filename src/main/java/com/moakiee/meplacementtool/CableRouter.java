@@ -0,0 +1,159 @@
+package com.moakiee.meplacementtool;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.jetbrains.annotations.Nullable;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongHeapPriorityQueue;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+
+/**
+ * Bounded A* search for the Cable Placement Tool's ROUTE mode: the cheapest 6-connected cable path between
+ * two cells. Placing a new cable costs {@link #PLACE}, running through a cell that already holds a usable
+ * cable costs {@link #REUSE}, so routes follow existing cables where that saves cables.
+ * <p>
+ * Cells are numbered as they are discovered; the open set is a heap of longs packing a node's score with
+ * its number and the closed set a bit set over the numbers, with costs and parents in plain arrays. The
+ * search stays inside the box spanned by the two ends plus {@link #MARGIN}, and gives up after
+ * {@code maxNodes} expansions or {@code maxNanos}. World access is left to the {@link CellCost}, so the same
+ * search runs on the server and on a client snapshot.
+ */
+public final class CableRouter {
+
+    public static final int BLOCKED = -1;
+    public static final int REUSE = 1;
+    public static final int PLACE = 2;
+    // How far a route may stray outside the box spanned by its ends
+    public static final int MARGIN = 8;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    @FunctionalInterface
+    public interface CellCost {
+        /**
+         * {@link #PLACE}, {@link #REUSE} or {@link #BLOCKED} for a packed position.
+         */
+        int cost(long pos);
+    }
+
+    private CableRouter() {
+    }
+
+    /**
+     * The route from {@code start} to {@code goal}, both included, as packed positions; null if there is
+     * none within the bounds and budget.
+     */
+    @Nullable
+    public static long[] find(BlockPos start, BlockPos goal, int maxNodes, long maxNanos, CellCost cellCost) {
+        long startKey = start.asLong();
+        long goalKey = goal.asLong();
+        if (cellCost.cost(startKey) == BLOCKED || cellCost.cost(goalKey) == BLOCKED) {
+            return null;
+        }
+        int minX = Math.min(start.getX(), goal.getX()) - MARGIN, maxX = Math.max(start.getX(), goal.getX()) + MARGIN;
+        int minY = Math.min(start.getY(), goal.getY()) - MARGIN, maxY = Math.max(start.getY(), goal.getY()) + MARGIN;
+        int minZ = Math.min(start.getZ(), goal.getZ()) - MARGIN, maxZ = Math.max(start.getZ(), goal.getZ()) + MARGIN;
+        long deadline = System.nanoTime() + maxNanos;
+
+        Nodes nodes = new Nodes();
+        BitSet closed = new BitSet();
+        LongHeapPriorityQueue open = new LongHeapPriorityQueue();
+        open.enqueue(entry(0, heuristic(startKey, goalKey), nodes.add(startKey, 0, -1)));
+
+        int expanded = 0;
+        while (!open.isEmpty()) {
+            int current = (int) open.dequeueLong();
+            // Stale entry of a node that was since reached more cheaply
+            if (closed.get(current)) continue;
+            long pos = nodes.pos[current];
+            if (pos == goalKey) {
+                return nodes.path(current);
+            }
+            closed.set(current);
+            if (++expanded > maxNodes || ((expanded & 255) == 0 && System.nanoTime() > deadline)) {
+                return null;
+            }
+
+            for (Direction direction : DIRECTIONS) {
+                long next = BlockPos.offset(pos, direction);
+                int x = BlockPos.getX(next), y = BlockPos.getY(next), z = BlockPos.getZ(next);
+                if (x < minX || x > maxX || y < minY || y > maxY || z < minZ || z > maxZ) continue;
+
+                int index = nodes.index.get(next);
+                if (index >= 0 && closed.get(index)) continue;
+                int cost = cellCost.cost(next);
+                if (cost == BLOCKED) continue;
+
+                int g = nodes.g[current] + cost;
+                if (index < 0) {
+                    index = nodes.add(next, g, current);
+                } else if (g < nodes.g[index]) {
+                    nodes.g[index] = g;
+                    nodes.parent[index] = current;
+                } else {
+                    continue;
+                }
+                open.enqueue(entry(g, heuristic(next, goalKey), index));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Heap entry ordered by f = g + h, then by h (the node furthest along first), then by node number.
+     */
+    private static long entry(int g, int h, int node) {
+        return ((long) (g + h) << 40) | ((long) Math.min(h, 0xFF) << 32) | node;
+    }
+
+    /**
+     * Manhattan distance at the cheapest step cost, so it never overestimates.
+     */
+    private static int heuristic(long from, long to) {
+        return REUSE * (Math.abs(BlockPos.getX(from) - BlockPos.getX(to))
+                + Math.abs(BlockPos.getY(from) - BlockPos.getY(to))
+                + Math.abs(BlockPos.getZ(from) - BlockPos.getZ(to)));
+    }
+
+    private static final class Nodes {
+        final Long2IntOpenHashMap index = new Long2IntOpenHashMap();
+        long[] pos = new long[256];
+        int[] g = new int[256];
+        int[] parent = new int[256];
+        int size;
+
+        Nodes() {
+            index.defaultReturnValue(-1);
+        }
+
+        int add(long p, int gScore, int parentIndex) {
+            if (size == pos.length) {
+                int capacity = size * 2;
+                pos = Arrays.copyOf(pos, capacity);
+                g = Arrays.copyOf(g, capacity);
+                parent = Arrays.copyOf(parent, capacity);
+            }
+            pos[size] = p;
+            g[size] = gScore;
+            parent[size] = parentIndex;
+            index.put(p, size);
+            return size++;
+        }
+
+        long[] path(int end) {
+            int length = 0;
+            for (int i = end; i >= 0; i = parent[i]) {
+                length++;
+            }
+            long[] path = new long[length];
+            for (int i = end; i >= 0; i = parent[i]) {
+                path[--length] = pos[i];
+            }
+            return path;
+        }
+    }
+}
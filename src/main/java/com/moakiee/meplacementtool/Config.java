@@ -25,6 +25,19 @@ public class Config
     public static final ForgeConfigSpec.DoubleValue CABLE_PLACEMENT_TOOL_ENERGY_COST;
     public static final ForgeConfigSpec.ConfigValue<List<? extends String>> NBT_WHITELIST_MODS;
     public static final ForgeConfigSpec.ConfigValue<List<? extends String>> NBT_WHITELIST_ITEMS;
+    public static final ForgeConfigSpec.IntValue PLACEMENT_JOB_BLOCKS_PER_TICK;
+    public static final ForgeConfigSpec.DoubleValue PLACEMENT_JOB_TICK_BUDGET_MS;
+    public static final ForgeConfigSpec.IntValue CABLE_PLACEMENT_TOOL_MAX_VOLUME;
+    public static final ForgeConfigSpec.IntValue UNDO_HISTORY_MAX_ENTRIES;
+    public static final ForgeConfigSpec.IntValue UNDO_HISTORY_PLAYER_BUDGET_KB;
+    public static final ForgeConfigSpec.IntValue UNDO_HISTORY_GLOBAL_BUDGET_KB;
+    public static final ForgeConfigSpec.IntValue UNDO_JOURNAL_MAX_SIZE_KB;
+    public static final ForgeConfigSpec.IntValue UNDO_JOURNAL_SYNC_INTERVAL_MS;
+    public static final ForgeConfigSpec.BooleanValue BULK_PLACEMENT_ENABLED;
+    public static final ForgeConfigSpec.ConfigValue<List<? extends String>> BULK_PLACEMENT_BLOCKS;
+    public static final ForgeConfigSpec.IntValue PARALLEL_VALIDATION_MIN_POSITIONS;
+    public static final ForgeConfigSpec.IntValue CABLE_ROUTE_MAX_NODES;
+    public static final ForgeConfigSpec.DoubleValue CABLE_ROUTE_TIME_BUDGET_MS;
 
     static {
         BUILDER.push("energy");
@@ -74,6 +87,74 @@ public class Config
                 .defineListAllowEmpty("nbtWhitelistItems", List.of("ae2:facade"), obj -> obj instanceof String);
 
         BUILDER.pop();
+
+        BUILDER.push("performance");
+
+        BUILDER.comment("Maximum number of blocks/cables placed per server tick by large placement operations.",
+                "Operations larger than this are spread over several ticks. Shared between all players.");
+        PLACEMENT_JOB_BLOCKS_PER_TICK = BUILDER
+                .defineInRange("placementJobBlocksPerTick", 256, 1, Integer.MAX_VALUE);
+
+        BUILDER.comment("Maximum time (in milliseconds) placement operations may run per server tick before",
+                "yielding to the next one. Shared between all players.");
+        PLACEMENT_JOB_TICK_BUDGET_MS = BUILDER
+                .defineInRange("placementJobTickBudgetMs", 10.0d, 0.1d, 1000.0d);
+
+        BUILDER.comment("Maximum number of cells a single Cable Placement Tool selection may cover",
+                "(PLANE_FILL box volume, or trunk plus branches). Larger selections are rejected.");
+        CABLE_PLACEMENT_TOOL_MAX_VOLUME = BUILDER
+                .defineInRange("cablePlacementToolMaxVolume", 65536, 1, Integer.MAX_VALUE);
+
+        BUILDER.comment("Maximum number of placements each player can undo.");
+        UNDO_HISTORY_MAX_ENTRIES = BUILDER
+                .defineInRange("undoHistoryMaxEntries", 16, 1, 1024);
+
+        BUILDER.comment("Memory budget (in KiB) of a single player's undo history. Oldest placements are",
+                "forgotten first; the most recent one is always kept.");
+        UNDO_HISTORY_PLAYER_BUDGET_KB = BUILDER
+                .defineInRange("undoHistoryPlayerBudgetKb", 1024, 1, Integer.MAX_VALUE);
+
+        BUILDER.comment("Memory budget (in KiB) of the undo history of all players together. Players who",
+                "used a tool least recently lose their oldest placements first.");
+        UNDO_HISTORY_GLOBAL_BUDGET_KB = BUILDER
+                .defineInRange("undoHistoryGlobalBudgetKb", 16384, 1, Integer.MAX_VALUE);
+
+        BUILDER.comment("Size (in KiB) a dimension's undo journal file may reach before it is compacted.",
+                "Compaction keeps only undoable placements, dropping the oldest ones if it is still too large.");
+        UNDO_JOURNAL_MAX_SIZE_KB = BUILDER
+                .defineInRange("undoJournalMaxSizeKb", 8192, 16, Integer.MAX_VALUE);
+
+        BUILDER.comment("How often (in milliseconds) pending undo journal writes are synced to disk.",
+                "Takes effect when the world is next loaded.");
+        UNDO_JOURNAL_SYNC_INTERVAL_MS = BUILDER
+                .defineInRange("undoJournalSyncIntervalMs", 5000, 100, Integer.MAX_VALUE);
+
+        BUILDER.comment("Let the Multiblock Placement Tool write simple blocks (no block entity, plain block item)",
+                "directly into chunks and send neighbour updates once per batch instead of once per block.",
+                "Blocks that change themselves when placed fall back to the regular placement.");
+        BULK_PLACEMENT_ENABLED = BUILDER
+                .define("bulkPlacementEnabled", false);
+
+        BUILDER.comment("Blocks the bulk placement may write. Format: \"modid:blockname\" or \"modid:*\".",
+                "Example: [\"minecraft:*\", \"create:*\"]");
+        BULK_PLACEMENT_BLOCKS = BUILDER
+                .defineListAllowEmpty("bulkPlacementBlocks", List.of("minecraft:*"), obj -> obj instanceof String);
+
+        BUILDER.comment("Cable selections and undo/redo checks covering at least this many positions check block states",
+                "on the background worker threads, from a copy of the chunk sections. 0 always checks on the server thread.");
+        PARALLEL_VALIDATION_MIN_POSITIONS = BUILDER
+                .defineInRange("parallelValidationMinPositions", 8192, 0, Integer.MAX_VALUE);
+
+        BUILDER.comment("Maximum number of cells the Cable Placement Tool's ROUTE mode may expand while searching",
+                "for a path. Routes that need more are not found.");
+        CABLE_ROUTE_MAX_NODES = BUILDER
+                .defineInRange("cableRouteMaxNodes", 65536, 1, Integer.MAX_VALUE);
+
+        BUILDER.comment("Maximum time (in milliseconds) a single ROUTE mode path search may run.");
+        CABLE_ROUTE_TIME_BUDGET_MS = BUILDER
+                .defineInRange("cableRouteTimeBudgetMs", 20.0d, 0.1d, 1000.0d);
+
+        BUILDER.pop();
     }
 
     static final ForgeConfigSpec SPEC = BUILDER.build();
@@ -86,6 +167,19 @@ public class Config
     public static double cablePlacementToolEnergyCost;
     public static Set<String> nbtWhitelistMods;
     public static Set<String> nbtWhitelistItems;
+    public static int placementJobBlocksPerTick = 256;
+    public static double placementJobTickBudgetMs = 10.0d;
+    public static int cablePlacementToolMaxVolume = 65536;
+    public static int undoHistoryMaxEntries = 16;
+    public static int undoHistoryPlayerBudgetKb = 1024;
+    public static int undoHistoryGlobalBudgetKb = 16384;
+    public static int undoJournalMaxSizeKb = 8192;
+    public static int undoJournalSyncIntervalMs = 5000;
+    public static boolean bulkPlacementEnabled = false;
+    public static Set<String> bulkPlacementBlocks = Set.of();
+    public static int parallelValidationMinPositions = 8192;
+    public static int cableRouteMaxNodes = 65536;
+    public static double cableRouteTimeBudgetMs = 20.0d;
 
     @SubscribeEvent
     static void onLoad(final ModConfigEvent event)
@@ -98,6 +192,21 @@ public class Config
         multiblockPlacementToolBaseEnergyCost = MULTIBLOCK_PLACEMENT_TOOL_BASE_ENERGY_COST.get();
         cablePlacementToolEnergyCapacity = CABLE_PLACEMENT_TOOL_ENERGY_CAPACITY.get();
         cablePlacementToolEnergyCost = CABLE_PLACEMENT_TOOL_ENERGY_COST.get();
+        placementJobBlocksPerTick = PLACEMENT_JOB_BLOCKS_PER_TICK.get();
+        placementJobTickBudgetMs = PLACEMENT_JOB_TICK_BUDGET_MS.get();
+        cablePlacementToolMaxVolume = CABLE_PLACEMENT_TOOL_MAX_VOLUME.get();
+        undoHistoryMaxEntries = UNDO_HISTORY_MAX_ENTRIES.get();
+        undoHistoryPlayerBudgetKb = UNDO_HISTORY_PLAYER_BUDGET_KB.get();
+        undoHistoryGlobalBudgetKb = UNDO_HISTORY_GLOBAL_BUDGET_KB.get();
+        undoJournalMaxSizeKb = UNDO_JOURNAL_MAX_SIZE_KB.get();
+        undoJournalSyncIntervalMs = UNDO_JOURNAL_SYNC_INTERVAL_MS.get();
+        bulkPlacementEnabled = BULK_PLACEMENT_ENABLED.get();
+        bulkPlacementBlocks = BULK_PLACEMENT_BLOCKS.get().stream()
+                .map(String::toLowerCase)
+                .collect(Collectors.toSet());
+        parallelValidationMinPositions = PARALLEL_VALIDATION_MIN_POSITIONS.get();
+        cableRouteMaxNodes = CABLE_ROUTE_MAX_NODES.get();
+        cableRouteTimeBudgetMs = CABLE_ROUTE_TIME_BUDGET_MS.get();
 
         nbtWhitelistMods = NBT_WHITELIST_MODS.get().stream()
                 .map(String::toLowerCase)
@@ -146,6 +255,19 @@ public class Config
         return false;
     }
 
+    /**
+     * Check if the given block may be written by the bulk placement.
+     * Supports wildcards: "modid:*" matches all blocks from that mod
+     */
+    public static boolean isBlockInBulkAllowlist(net.minecraft.world.level.block.Block block) {
+        var blockId = net.minecraftforge.registries.ForgeRegistries.BLOCKS.getKey(block);
+        if (blockId == null) {
+            return false;
+        }
+        return bulkPlacementBlocks.contains(blockId.toString().toLowerCase())
+                || bulkPlacementBlocks.contains(blockId.getNamespace().toLowerCase() + ":*");
+    }
+
     /**
      * Check if the given ItemStack should ignore NBT when matching in AE network.
      * Returns true if NBT should be ignored, false if NBT should be preserved.
@@ -181,12 +303,23 @@ public class Config
      * Find all AEItemKeys in the storage that match the target item (by item ID, ignoring NBT if configured).
      * Returns a list of (AEItemKey, count) pairs.
      * 
-     * @param storage The AE storage to search in
+     * @param storageService The storage service of the AE grid to search in
      * @param target The target ItemStack to match
      * @return List of matching AEItemKeys with their counts, empty if none found
      */
+    public static java.util.List<java.util.Map.Entry<appeng.api.stacks.AEItemKey, Long>> findAllMatchingKeys(
+            appeng.api.networking.storage.IStorageService storageService,
+            net.minecraft.world.item.ItemStack target) {
+        return findAllMatchingKeys(storageService.getInventory(), storageService.getCachedInventory(), target);
+    }
+
+    /**
+     * {@link #findAllMatchingKeys(appeng.api.networking.storage.IStorageService, net.minecraft.world.item.ItemStack)}
+     * against a storage and its cached inventory.
+     */
     public static java.util.List<java.util.Map.Entry<appeng.api.stacks.AEItemKey, Long>> findAllMatchingKeys(
             appeng.api.storage.MEStorage storage,
+            appeng.api.stacks.KeyCounter cachedInventory,
             net.minecraft.world.item.ItemStack target) {
         java.util.List<java.util.Map.Entry<appeng.api.stacks.AEItemKey, Long>> result = new java.util.ArrayList<>();
         
@@ -209,17 +342,8 @@ public class Config
         boolean ignoreNbt = shouldIgnoreNbt(target);
 
         if (ignoreNbt) {
-            // Ignore NBT: find all items with the same ID (must iterate)
-            var targetItem = target.getItem();
-            var availableStacks = storage.getAvailableStacks();
-            for (var entry : availableStacks) {
-                var key = entry.getKey();
-                if (key instanceof appeng.api.stacks.AEItemKey itemKey) {
-                    if (itemKey.getItem() == targetItem && entry.getLongValue() > 0) {
-                        result.add(java.util.Map.entry(itemKey, entry.getLongValue()));
-                    }
-                }
-            }
+            // Ignore NBT: find all items with the same ID via the per-network index
+            result.addAll(ItemKeyIndex.findAll(storage, cachedInventory, target.getItem()));
         } else {
             // Preserve NBT: exact match - use direct extract instead of iterating storage (performance optimization)
             var exactKey = appeng.api.stacks.AEItemKey.of(target);
@@ -238,9 +362,9 @@ public class Config
      * Get the total count of all matching items in storage (summing across different NBTs if ignoring NBT).
      */
     public static long getTotalMatchingCount(
-            appeng.api.storage.MEStorage storage,
+            appeng.api.networking.storage.IStorageService storageService,
             net.minecraft.world.item.ItemStack target) {
-        return findAllMatchingKeys(storage, target).stream()
+        return findAllMatchingKeys(storageService, target).stream()
                 .mapToLong(java.util.Map.Entry::getValue)
                 .sum();
     }
@@ -250,14 +374,14 @@ public class Config
      * If the item's mod is NOT in the whitelist, NBT will be ignored (finds any item with same ID).
      * If the item's mod IS in the whitelist, exact NBT match is required.
      * 
-     * @param storage The AE storage to search in
+     * @param storageService The storage service of the AE grid to search in
      * @param target The target ItemStack to match
      * @return The matching AEItemKey found in storage, or null if not found
      */
     public static appeng.api.stacks.AEItemKey findMatchingKey(
-            appeng.api.storage.MEStorage storage,
+            appeng.api.networking.storage.IStorageService storageService,
             net.minecraft.world.item.ItemStack target) {
-        var matches = findAllMatchingKeys(storage, target);
+        var matches = findAllMatchingKeys(storageService, target);
         return matches.isEmpty() ? null : matches.get(0).getKey();
     }
 
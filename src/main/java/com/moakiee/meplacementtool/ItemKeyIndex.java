@@ -0,0 +1,45 @@
+package com.moakiee.meplacementtool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import net.minecraft.world.item.Item;
+
+import appeng.api.config.Actionable;
+import appeng.api.config.FuzzyMode;
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.KeyCounter;
+import appeng.api.storage.MEStorage;
+
+/**
+ * Lookup from {@link Item} to the {@link AEItemKey}s of that item held by a grid's storage, so that
+ * NBT-ignoring lookups don't have to walk every key in the network.
+ * <p>
+ * The keys come from the storage service's cached inventory, which AE2 keeps grouped by item and updates
+ * from the grid's storage change notifications once per tick, so nothing here is ever rebuilt. Amounts are
+ * read from the storage itself, since the cache may be a tick behind; keys inserted during the current
+ * tick show up from the next one.
+ * Server thread only.
+ */
+public final class ItemKeyIndex {
+
+    private ItemKeyIndex() {}
+
+    /**
+     * All keys of {@code item} currently stored, with their available amounts.
+     *
+     * @param cachedInventory {@code IStorageService#getCachedInventory()} of the grid owning {@code storage}
+     */
+    public static List<Map.Entry<AEItemKey, Long>> findAll(MEStorage storage, KeyCounter cachedInventory, Item item) {
+        List<Map.Entry<AEItemKey, Long>> result = new ArrayList<>();
+        for (var entry : cachedInventory.findFuzzy(AEItemKey.of(item), FuzzyMode.IGNORE_ALL)) {
+            if (!(entry.getKey() instanceof AEItemKey key)) continue;
+            long count = storage.extract(key, Long.MAX_VALUE, Actionable.SIMULATE, null);
+            if (count > 0) {
+                result.add(Map.entry(key, count));
+            }
+        }
+        return result;
+    }
+}
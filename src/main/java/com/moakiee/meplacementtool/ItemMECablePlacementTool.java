@@ -3,6 +3,7 @@ package com.moakiee.meplacementtool;
 import appeng.api.config.Actionable;
 import appeng.api.implementations.menuobjects.IMenuItem;
 import appeng.api.implementations.menuobjects.ItemMenuHost;
+import appeng.api.networking.GridHelper;
 import appeng.api.networking.IGrid;
 import appeng.api.networking.crafting.ICraftingService;
 import appeng.api.parts.IPartHost;
@@ -17,6 +18,10 @@ import appeng.api.util.AEColor;
 import appeng.core.definitions.AEParts;
 import appeng.core.definitions.ColoredItemDefinition;
 import appeng.me.helpers.PlayerSource;
+import com.mojang.logging.LogUtils;
+import it.unimi.dsi.fastutil.longs.Long2BooleanOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.nbt.CompoundTag;
@@ -33,15 +38,20 @@ import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.context.UseOnContext;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.Vec3;
 import net.minecraft.sounds.SoundSource;
 import net.minecraft.sounds.SoundEvents;
 import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.function.LongPredicate;
 
 public class ItemMECablePlacementTool extends BasePlacementToolItem implements IMenuItem, IMouseWheelItem {
+    private static final Logger LOGGER = LogUtils.getLogger();
 
     /**
      * Check if a cable can be placed at the given position.
@@ -50,12 +60,25 @@ public class ItemMECablePlacementTool extends BasePlacementToolItem implements I
      * - The position is an AE2 IPartHost without a center cable (only has side parts like panels, anchors, quartz fiber)
      */
     public static boolean canPlaceCableAt(Level level, BlockPos pos) {
-        var state = level.getBlockState(pos);
-        
+        return canPlaceCableAt(level, level.getBlockState(pos), pos);
+    }
+
+    /**
+     * As {@link #canPlaceCableAt(Level, BlockPos)}, reading the block state through {@code blocks}.
+     */
+    public static boolean canPlaceCableAt(SectionBlockReader blocks, BlockPos pos) {
+        return canPlaceCableAt(blocks.getLevel(), blocks.getBlockState(pos), pos);
+    }
+
+    private static boolean canPlaceCableAt(Level level, BlockState state, BlockPos pos) {
         // Air blocks are always valid
         if (state.isAir()) {
             return true;
         }
+        // Only a block entity can be a part host
+        if (!state.hasBlockEntity()) {
+            return false;
+        }
         
         // Check for AE2 cable bus with no center cable
         IPartHost host = PartHelper.getPartHost(level, pos);
@@ -69,6 +92,46 @@ public class ItemMECablePlacementTool extends BasePlacementToolItem implements I
         return false;
     }
 
+    /**
+     * ROUTE mode cost of a cell holding a part host: a new cable if it has no center cable yet, or the
+     * existing cable if its color connects to {@code color}.
+     */
+    public static int getRouteCost(IPartHost host, AEColor color) {
+        if (host.getPart(null) == null) {
+            return CableRouter.PLACE;
+        }
+        AEColor existing = host.getColor();
+        return existing == AEColor.TRANSPARENT || color == AEColor.TRANSPARENT || existing == color
+                ? CableRouter.REUSE
+                : CableRouter.BLOCKED;
+    }
+
+    /**
+     * Find a ROUTE mode path between two points. Unloaded chunks are never routed through.
+     */
+    @Nullable
+    private static long[] findRoute(Level level, BlockPos from, BlockPos to, AEColor color) {
+        SectionBlockReader blocks = new SectionBlockReader(level);
+        LoadedChunks chunks = new LoadedChunks(level);
+        BlockPos.MutableBlockPos cell = new BlockPos.MutableBlockPos();
+        long maxNanos = (long) (Config.cableRouteTimeBudgetMs * 1_000_000L);
+        return CableRouter.find(from, to, Config.cableRouteMaxNodes, maxNanos, pos -> {
+            cell.set(pos);
+            if (level.isOutsideBuildHeight(cell) || !chunks.check(cell)) {
+                return CableRouter.BLOCKED;
+            }
+            BlockState state = blocks.getBlockState(cell);
+            if (state.isAir()) {
+                return CableRouter.PLACE;
+            }
+            if (!state.hasBlockEntity()) {
+                return CableRouter.BLOCKED;
+            }
+            IPartHost host = PartHelper.getPartHost(level, cell);
+            return host != null ? getRouteCost(host, color) : CableRouter.BLOCKED;
+        });
+    }
+
     /**
      * Get the smart target position for cable placement.
      * When clicking on an IPartHost (cable bus with parts but no cable):
@@ -121,7 +184,9 @@ public class ItemMECablePlacementTool extends BasePlacementToolItem implements I
     public enum PlacementMode {
         LINE,
         PLANE_FILL,
-        PLANE_BRANCHING
+        PLANE_BRANCHING,
+        // Shortest path between the two points, see CableRouter
+        ROUTE
     }
 
     public enum CableType {
@@ -265,7 +330,7 @@ public class ItemMECablePlacementTool extends BasePlacementToolItem implements I
                 }
             }
         } else {
-            // PLANE_FILL uses 2 points (original behavior)
+            // PLANE_FILL and ROUTE use 2 points (original behavior)
             if (p1 == null) {
                 setPoint1(stack, targetPos);
                 player.displayClientMessage(Component.translatable("message.meplacementtool.point1_set", targetPos.toShortString()), true);
@@ -284,29 +349,6 @@ public class ItemMECablePlacementTool extends BasePlacementToolItem implements I
         return InteractionResult.SUCCESS;
     }
 
-    /**
-     * Find an available cable key from ME storage.
-     * Priority: same color > any other color
-     */
-    private AEItemKey findAvailableCableKey(MEStorage storage, PlayerSource src, CableType cableType, AEColor preferredColor) {
-        // First try: preferred (same) color
-        ItemStack preferredStack = cableType.getStack(preferredColor);
-        AEItemKey preferredKey = AEItemKey.of(preferredStack);
-        if (storage.extract(preferredKey, 1, Actionable.SIMULATE, src) >= 1) {
-            return preferredKey;
-        }
-        
-        // Second try: any other color
-        for (var entry : cableType.getColorLookup().entrySet()) {
-            if (entry.getValue() == preferredColor) continue;
-            if (storage.extract(entry.getKey(), 1, Actionable.SIMULATE, src) >= 1) {
-                return entry.getKey();
-            }
-        }
-        
-        return null; // No cable available
-    }
-
     /**
      * Get the AEColor from a cable AEItemKey.
      */
@@ -327,11 +369,27 @@ public class ItemMECablePlacementTool extends BasePlacementToolItem implements I
         ColorLogicResult colorLogic = determineColorLogic(player, tool);
         AEColor color = colorLogic.color;
 
-        List<BlockPos> positions = calculatePositions(p1, p2, mode);
-        if (positions.isEmpty()) {
+        PositionCursor positions;
+        if (mode == PlacementMode.ROUTE) {
+            // Cells of the route that already hold a cable are left out by the placeable check below
+            long[] route = findRoute(level, p1, p2, color);
+            if (route == null) {
+                player.displayClientMessage(Component.translatable("message.meplacementtool.route_not_found"), true);
+                return false;
+            }
+            positions = PositionCursor.of(route);
+        } else {
+            positions = CablePositions.forMode(p1, p2, mode);
+        }
+        if (positions.size() == 0) {
             player.displayClientMessage(Component.translatable("message.meplacementtool.no_positions"), true);
             return false;
         }
+        if (positions.size() > Config.cablePlacementToolMaxVolume) {
+            player.displayClientMessage(Component.translatable("message.meplacementtool.area_too_large",
+                    positions.size(), Config.cablePlacementToolMaxVolume), true);
+            return false;
+        }
 
         // Check Power
         double energyCost = Config.cablePlacementToolEnergyCost * positions.size();
@@ -350,29 +408,23 @@ public class ItemMECablePlacementTool extends BasePlacementToolItem implements I
         ItemStack placeCableStack = cableType.getStack(color);
 
         // Pre-check: Count how many positions actually need cables (filter out non-air)
-        List<BlockPos> validPositions = new java.util.ArrayList<>();
-        for (BlockPos pos : positions) {
-            if (canPlaceCableAt(level, pos)) {
-                validPositions.add(pos);
-            }
-        }
-        
-        if (validPositions.isEmpty()) {
-            player.displayClientMessage(Component.translatable("message.meplacementtool.no_positions"), true);
+        LoadedChunks chunks = new LoadedChunks(level);
+        long[] placeable = collectPlaceablePositions(level, positions, chunks);
+        int totalNeeded = placeable.length;
+        if (totalNeeded == 0) {
+            player.displayClientMessage(chunks.getSkipped() > 0
+                    ? Component.translatable("message.meplacementtool.skipped_unloaded", chunks.getSkipped())
+                    : Component.translatable("message.meplacementtool.no_positions"), true);
             return false;
         }
         
-        int totalNeeded = validPositions.size();
-        
-        // Pre-check: Count total available cables in network (any color of this type)
-        long totalAvailable = 0;
-        for (var entry : cableType.getColorLookup().entrySet()) {
-            totalAvailable += storage.extract(entry.getKey(), totalNeeded, Actionable.SIMULATE, src);
-            if (totalAvailable >= totalNeeded) break; // Enough found
-        }
+        // Pre-check: take the cables from the network up front (same color first, then any color of this type)
+        PlacementTransaction transaction = PlacementTransaction.forCables(storage, src, player, cableType, color, totalNeeded);
+        long totalAvailable = transaction.getReserved();
         
         // If not enough cables, trigger crafting BEFORE placing anything
         if (totalAvailable < totalNeeded) {
+            transaction.cancel();
             // Try to craft Fluix (TRANSPARENT) cable as it's the base type
             var fluixCableStack = cableType.getStack(AEColor.TRANSPARENT);
             var craftKey = AEItemKey.of(fluixCableStack);
@@ -387,62 +439,187 @@ public class ItemMECablePlacementTool extends BasePlacementToolItem implements I
             return false;
         }
 
-        // Now we know we have enough cables, proceed with placement
-        int placedCount = 0;
-        int dyeConsumed = 0;
-        List<UndoHistory.CablePlacementSnapshot> placedSnapshots = new java.util.ArrayList<>();
-
-        for (BlockPos pos : validPositions) {
-            // Find available cable (priority: same color > any color)
-            AEItemKey keyToExtract = findAvailableCableKey(storage, src, cableType, color);
-            if (keyToExtract == null) {
-                // This shouldn't happen since we pre-checked, but handle gracefully
-                player.displayClientMessage(Component.translatable("message.meplacementtool.missing_cable", placeCableStack.getHoverName()), true);
-                break;
-            }
+        if (!transaction.reserveEnergy(this, tool, Config.cablePlacementToolEnergyCost, totalNeeded)) {
+            transaction.cancel();
+            player.displayClientMessage(Component.translatable("message.meplacementtool.device_not_powered"), true);
+            return false;
+        }
 
-            // Check if we need dye for this cable (only if extracted color != target color)
-            AEColor extractedColor = getColorFromCableKey(keyToExtract, cableType);
-            boolean needsDyeForThis = colorLogic.needsDye && (extractedColor != color);
-
-            // If dye is needed, try to consume it
-            if (needsDyeForThis && color != AEColor.TRANSPARENT) {
-                // Check dye availability (1 dye per 8 cables, we check per cable here)
-                if ((dyeConsumed == 0 || placedCount % 8 == 0) && dyeConsumed < (placedCount / 8) + 1) {
-                    if (!consumeDye(player, storage, src, color, 1)) {
-                        player.displayClientMessage(Component.translatable("message.meplacementtool.missing_dye", 1, DyeItem.byColor(color.dye).getDescription()), true);
-                        break;
-                    }
-                    dyeConsumed++;
+        // Now we hold enough cables and power, proceed with placement
+        submitPlacementJob(player, tool, level, orderFromNetwork(level, placeable, chunks), storage, src, transaction,
+                cableType, colorLogic, placeCableStack);
+        return false; // Normal completion, can clear points
+    }
+
+    /**
+     * The distinct positions of the cursor a cable can currently be placed at, packed, in cursor order.
+     * Positions in unloaded chunks are left out (and counted in {@code chunks}) rather than loaded.
+     */
+    private static long[] collectPlaceablePositions(Level level, PositionCursor positions, LoadedChunks chunks) {
+        LongLinkedOpenHashSet loaded = new LongLinkedOpenHashSet();
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        positions.reset();
+        while (positions.next(pos)) {
+            if (chunks.check(pos)) {
+                loaded.add(pos.asLong());
+            }
+        }
+        positions.reset();
+        long[] packed = loaded.toLongArray();
+
+        if (ParallelValidator.shouldUse(packed.length)) {
+            // Air and blocks without a block entity are decided on the worker pool; possible part hosts here
+            var result = ParallelValidator.validate(level, packed, (i, state) -> state.isAir()
+                    ? ParallelValidator.Verdict.PASS
+                    : state.hasBlockEntity() ? ParallelValidator.Verdict.LIVE : ParallelValidator.Verdict.FAIL);
+            BitSet placeable = result.passing();
+            for (int i : result.live()) {
+                if (canPlaceCableAt(level, pos.set(packed[i]))) {
+                    placeable.set(i);
                 }
             }
+            return placeable.stream().mapToLong(i -> packed[i]).toArray();
+        }
 
-            // Place
-            if (placeCable(player, (ServerLevel) level, pos, placeCableStack)) {
-                storage.extract(keyToExtract, 1, Actionable.MODULATE, src);
-                placedCount++;
-                // Record for undo - return the same type of cable that was extracted
-                placedSnapshots.add(new UndoHistory.CablePlacementSnapshot(pos, cableType, keyToExtract));
+        SectionBlockReader blocks = new SectionBlockReader(level);
+        LongArrayList placeable = new LongArrayList(packed.length);
+        for (long packedPos : packed) {
+            if (canPlaceCableAt(blocks, pos.set(packedPos))) {
+                placeable.add(packedPos);
             }
         }
+        return placeable.toLongArray();
+    }
 
-        if (placedCount > 0) {
-            this.usePower(player, Config.cablePlacementToolEnergyCost * placedCount, tool);
-            player.displayClientMessage(Component.translatable("message.meplacementtool.placed_count", placedCount), true);
-            
-            // Play cable placement sound (use first placed position)
-            if (!placedSnapshots.isEmpty()) {
+    /**
+     * Order placeable positions so the new cables grow out of the network next to them (see
+     * {@link CableGrowthOrder}) instead of forming separate grids that AE2 merges as they meet. Neighbours in
+     * unloaded chunks count as not touching the network rather than being loaded.
+     */
+    private static PositionCursor orderFromNetwork(Level level, long[] placeable, LoadedChunks chunks) {
+        SectionBlockReader blocks = new SectionBlockReader(level);
+        BlockPos.MutableBlockPos neighbour = new BlockPos.MutableBlockPos();
+        // Each cell's neighbours are read once, however often the ordering and the debug counts ask
+        Long2BooleanOpenHashMap touching = new Long2BooleanOpenHashMap();
+        LongPredicate touchesNetwork = pos -> touching.computeIfAbsent(pos, p -> {
+            for (Direction direction : Direction.values()) {
+                neighbour.set(BlockPos.offset(p, direction));
+                if (!chunks.isLoaded(neighbour)) continue;
+                // Only a block entity can host a grid node
+                if (!blocks.getBlockState(neighbour).hasBlockEntity()) continue;
+                var host = GridHelper.getNodeHost(level, neighbour);
+                if (host != null && host.getGridNode(direction.getOpposite()) != null) {
+                    return true;
+                }
+            }
+            return false;
+        });
+
+        long[] ordered = CableGrowthOrder.order(placeable, touchesNetwork);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Cable placement of {} cells: {} grid merges in selection order, {} in growth order",
+                    ordered.length, CableGrowthOrder.countGridMerges(placeable, touchesNetwork),
+                    CableGrowthOrder.countGridMerges(ordered, touchesNetwork));
+        }
+        return PositionCursor.of(ordered);
+    }
+
+    /**
+     * Place cables at every placeable position of the cursor. Large selections are spread over several
+     * server ticks by the {@link PlacementJobScheduler}. Cables and power are already paid for by
+     * {@code transaction}; what isn't used, feedback and undo history are settled once the job completes.
+     */
+    private void submitPlacementJob(ServerPlayer player, ItemStack tool, Level level, PositionCursor positions,
+            MEStorage storage, PlayerSource src, PlacementTransaction transaction, CableType cableType,
+            ColorLogicResult colorLogic, ItemStack placeCableStack) {
+        AEColor color = colorLogic.color;
+        List<UndoHistory.CablePlacementSnapshot> placedSnapshots = new ArrayList<>();
+
+        // Counts cells in unloaded chunks as the job reaches them, whatever they were at the pre-check
+        LoadedChunks chunks = new LoadedChunks(level);
+        SectionBlockReader blocks = new SectionBlockReader(level);
+
+        MEPlacementToolMod.instance.placementJobs.submit(player, new PlacementJob(positions) {
+            private int dyeConsumed = 0;
+            private final long startNanos = System.nanoTime();
+            private int ticks = 1;
+
+            @Override
+            protected void onYield() {
+                blocks.reset();
+                ticks++;
+            }
+
+            @Override
+            protected StepResult place(BlockPos cursorPos) {
+                // Cells that are occupied (or became occupied since the pre-check) are skipped,
+                // as are cells whose chunk isn't loaded
+                if (!chunks.checkNow(cursorPos) || !canPlaceCableAt(blocks, cursorPos)) {
+                    return StepResult.SKIPPED;
+                }
+                BlockPos pos = cursorPos.immutable();
+                int placedCount = getPlacedCount();
+
+                // Take a reserved cable (priority: same color > any color)
+                AEItemKey keyToExtract = (AEItemKey) transaction.allocate();
+                if (keyToExtract == null) {
+                    // This shouldn't happen since we pre-checked, but handle gracefully
+                    player.displayClientMessage(Component.translatable("message.meplacementtool.missing_cable", placeCableStack.getHoverName()), true);
+                    return StepResult.STOP;
+                }
+
+                // Check if we need dye for this cable (only if extracted color != target color)
+                AEColor extractedColor = getColorFromCableKey(keyToExtract, cableType);
+                boolean needsDyeForThis = colorLogic.needsDye && (extractedColor != color);
+
+                // If dye is needed, try to consume it
+                if (needsDyeForThis && color != AEColor.TRANSPARENT) {
+                    // Check dye availability (1 dye per 8 cables that need dyeing)
+                    if ((dyeConsumed == 0 || placedCount % 8 == 0) && dyeConsumed < (placedCount / 8) + 1) {
+                        if (!consumeDye(player, storage, src, color, 1)) {
+                            transaction.release(keyToExtract);
+                            player.displayClientMessage(Component.translatable("message.meplacementtool.missing_dye", 1, DyeItem.byColor(color.dye).getDescription()), true);
+                            return StepResult.STOP;
+                        }
+                        dyeConsumed++;
+                    }
+                }
+
+                if (placeCable(player, (ServerLevel) level, pos, placeCableStack)) {
+                    // Record for undo - return the same type of cable that was extracted
+                    placedSnapshots.add(new UndoHistory.CablePlacementSnapshot(pos, cableType, keyToExtract));
+                    return StepResult.PLACED;
+                }
+                transaction.release(keyToExtract);
+                return StepResult.SKIPPED;
+            }
+
+            @Override
+            protected void complete(boolean cancelled) {
+                int placedCount = placedSnapshots.size();
+                // Return the cables and power that weren't used
+                transaction.commit(placedCount);
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("Placed {} cables over {} ticks in {} ms", placedCount, ticks,
+                            (System.nanoTime() - startNanos) / 1_000_000);
+                }
+                if (placedCount <= 0) return;
+
+                player.displayClientMessage(chunks.getSkipped() > 0
+                        ? Component.translatable("message.meplacementtool.placed_count_skipped", placedCount, chunks.getSkipped())
+                        : Component.translatable("message.meplacementtool.placed_count", placedCount), true);
+
+                // Play cable placement sound (use first placed position)
                 BlockPos soundPos = placedSnapshots.get(0).pos;
                 var placedState = level.getBlockState(soundPos);
                 var soundType = placedState.getSoundType(level, soundPos, player);
-                level.playSound(null, soundPos, soundType.getPlaceSound(), SoundSource.BLOCKS, 
+                level.playSound(null, soundPos, soundType.getPlaceSound(), SoundSource.BLOCKS,
                     (soundType.getVolume() + 1.0F) / 2.0F, soundType.getPitch() * 0.8F);
+
+                // Add to undo history
+                MEPlacementToolMod.instance.undoHistory.addCablePlacement(player, level, placedSnapshots);
             }
-            
-            // Add to undo history
-            MEPlacementToolMod.instance.undoHistory.addCablePlacement(player, level, placedSnapshots);
-        }
-        return false; // Normal completion, can clear points
+        });
     }
 
     private boolean placeCable(ServerPlayer player, ServerLevel level, BlockPos pos, ItemStack cableStack) {
@@ -469,11 +646,16 @@ public class ItemMECablePlacementTool extends BasePlacementToolItem implements I
         ColorLogicResult colorLogic = determineColorLogic(player, tool);
         AEColor color = colorLogic.color;
 
-        List<BlockPos> positions = calculateBranchPositions(p1, p2, p3);
-        if (positions.isEmpty()) {
+        PositionCursor positions = CablePositions.branch(p1, p2, p3);
+        if (positions.size() == 0) {
             player.displayClientMessage(Component.translatable("message.meplacementtool.no_positions"), true);
             return false;
         }
+        if (positions.size() > Config.cablePlacementToolMaxVolume) {
+            player.displayClientMessage(Component.translatable("message.meplacementtool.area_too_large",
+                    positions.size(), Config.cablePlacementToolMaxVolume), true);
+            return false;
+        }
 
         // Check Power
         double energyCost = Config.mePlacementToolEnergyCost * positions.size();
@@ -492,29 +674,23 @@ public class ItemMECablePlacementTool extends BasePlacementToolItem implements I
         ItemStack placeCableStack = cableType.getStack(color);
 
         // Pre-check: Count how many positions actually need cables (filter out non-air)
-        List<BlockPos> validPositions = new java.util.ArrayList<>();
-        for (BlockPos pos : positions) {
-            if (canPlaceCableAt(level, pos)) {
-                validPositions.add(pos);
-            }
-        }
-        
-        if (validPositions.isEmpty()) {
-            player.displayClientMessage(Component.translatable("message.meplacementtool.no_positions"), true);
+        LoadedChunks chunks = new LoadedChunks(level);
+        long[] placeable = collectPlaceablePositions(level, positions, chunks);
+        int totalNeeded = placeable.length;
+        if (totalNeeded == 0) {
+            player.displayClientMessage(chunks.getSkipped() > 0
+                    ? Component.translatable("message.meplacementtool.skipped_unloaded", chunks.getSkipped())
+                    : Component.translatable("message.meplacementtool.no_positions"), true);
             return false;
         }
         
-        int totalNeeded = validPositions.size();
-        
-        // Pre-check: Count total available cables in network (any color of this type)
-        long totalAvailable = 0;
-        for (var entry : cableType.getColorLookup().entrySet()) {
-            totalAvailable += storage.extract(entry.getKey(), totalNeeded, Actionable.SIMULATE, src);
-            if (totalAvailable >= totalNeeded) break; // Enough found
-        }
+        // Pre-check: take the cables from the network up front (same color first, then any color of this type)
+        PlacementTransaction transaction = PlacementTransaction.forCables(storage, src, player, cableType, color, totalNeeded);
+        long totalAvailable = transaction.getReserved();
         
         // If not enough cables, trigger crafting BEFORE placing anything
         if (totalAvailable < totalNeeded) {
+            transaction.cancel();
             // Try to craft Fluix (TRANSPARENT) cable as it's the base type
             var fluixCableStack = cableType.getStack(AEColor.TRANSPARENT);
             var craftKey = AEItemKey.of(fluixCableStack);
@@ -529,60 +705,15 @@ public class ItemMECablePlacementTool extends BasePlacementToolItem implements I
             return false;
         }
 
-        // Now we know we have enough cables, proceed with placement
-        int placedCount = 0;
-        int dyeConsumed = 0;
-        List<UndoHistory.CablePlacementSnapshot> placedSnapshots = new java.util.ArrayList<>();
-        
-        for (BlockPos pos : validPositions) {
-            // Find available cable (priority: same color > any color)
-            AEItemKey keyToExtract = findAvailableCableKey(storage, src, cableType, color);
-            if (keyToExtract == null) {
-                // This shouldn't happen since we pre-checked, but handle gracefully
-                player.displayClientMessage(Component.translatable("message.meplacementtool.missing_cable", placeCableStack.getHoverName()), true);
-                break;
-            }
-
-            // Check if we need dye for this cable (only if extracted color != target color)
-            AEColor extractedColor = getColorFromCableKey(keyToExtract, cableType);
-            boolean needsDyeForThis = colorLogic.needsDye && (extractedColor != color);
-
-            // If dye is needed, try to consume it
-            if (needsDyeForThis && color != AEColor.TRANSPARENT) {
-                // Check dye availability (1 dye per 8 cables that need dyeing)
-                if ((dyeConsumed == 0 || placedCount % 8 == 0) && dyeConsumed < (placedCount / 8) + 1) {
-                    if (!consumeDye(player, storage, src, color, 1)) {
-                        player.displayClientMessage(Component.translatable("message.meplacementtool.missing_dye", 1, DyeItem.byColor(color.dye).getDescription()), true);
-                        break;
-                    }
-                    dyeConsumed++;
-                }
-            }
-
-            if (placeCable(player, (ServerLevel) level, pos, placeCableStack)) {
-                storage.extract(keyToExtract, 1, Actionable.MODULATE, src);
-                placedCount++;
-                // Record for undo - return the same type of cable that was extracted
-                placedSnapshots.add(new UndoHistory.CablePlacementSnapshot(pos, cableType, keyToExtract));
-            }
+        if (!transaction.reserveEnergy(this, tool, Config.mePlacementToolEnergyCost, totalNeeded)) {
+            transaction.cancel();
+            player.displayClientMessage(Component.translatable("message.meplacementtool.device_not_powered"), true);
+            return false;
         }
 
-        if (placedCount > 0) {
-            this.usePower(player, Config.mePlacementToolEnergyCost * placedCount, tool);
-            player.displayClientMessage(Component.translatable("message.meplacementtool.placed_count", placedCount), true);
-            
-            // Play cable placement sound (use first placed position)
-            if (!placedSnapshots.isEmpty()) {
-                BlockPos soundPos = placedSnapshots.get(0).pos;
-                var placedState = level.getBlockState(soundPos);
-                var soundType = placedState.getSoundType(level, soundPos, player);
-                level.playSound(null, soundPos, soundType.getPlaceSound(), SoundSource.BLOCKS, 
-                    (soundType.getVolume() + 1.0F) / 2.0F, soundType.getPitch() * 0.8F);
-            }
-            
-            // Add to undo history
-            MEPlacementToolMod.instance.undoHistory.addCablePlacement(player, level, placedSnapshots);
-        }
+        // Now we hold enough cables and power, proceed with placement
+        submitPlacementJob(player, tool, level, orderFromNetwork(level, placeable, chunks), storage, src, transaction,
+                cableType, colorLogic, placeCableStack);
         return false; // Normal completion, can clear points
     }
 
@@ -591,157 +722,19 @@ public class ItemMECablePlacementTool extends BasePlacementToolItem implements I
      * LINE mode: only axis-aligned or smart-snap lines (no diagonal stepping).
      * PLANE_FILL: fill a rectangular area.
      * PLANE_BRANCHING: calculated separately with 3 points.
+     * Prefer {@link CablePositions#forMode} for anything that may be large.
      */
     public static List<BlockPos> calculatePositions(BlockPos p1, BlockPos p2, PlacementMode mode) {
-        List<BlockPos> list = new ArrayList<>();
-        int x1 = p1.getX(), y1 = p1.getY(), z1 = p1.getZ();
-        int x2 = p2.getX(), y2 = p2.getY(), z2 = p2.getZ();
-
-        int dx = Math.abs(x2 - x1);
-        int dy = Math.abs(y2 - y1);
-        int dz = Math.abs(z2 - z1);
-
-        if (mode == PlacementMode.LINE) {
-            // LINE mode uses getLineBlocks for axis-aligned lines
-            // findLine already returns axis-aligned endpoint, so we just generate the line blocks
-            return getLineBlocks(x1, y1, z1, x2, y2, z2);
-        } else if (mode == PlacementMode.PLANE_FILL) {
-            // Fill area - works for any 3D box
-            int minX = Math.min(x1, x2), maxX = Math.max(x1, x2);
-            int minY = Math.min(y1, y2), maxY = Math.max(y1, y2);
-            int minZ = Math.min(z1, z2), maxZ = Math.max(z1, z2);
-            for (int x = minX; x <= maxX; x++) {
-                for (int y = minY; y <= maxY; y++) {
-                    for (int z = minZ; z <= maxZ; z++) {
-                        list.add(new BlockPos(x, y, z));
-                    }
-                }
-            }
-        }
-        // PLANE_BRANCHING is handled by calculateBranchPositions with 3 points
-        return list;
+        return CablePositions.toList(CablePositions.forMode(p1, p2, mode));
     }
 
     /**
      * Calculate branching positions using 3 points.
      * Supports all 3 planes: XZ (horizontal), XY (vertical east-west), YZ (vertical north-south).
-     * Point 1 (A): Start point
-     * Point 2 (B): Determines main trunk direction and branch interval
-     * Point 3 (C): Forms a plane with Point 1, determines branch length
+     * Prefer {@link CablePositions#branch} for anything that may be large.
      */
     public static List<BlockPos> calculateBranchPositions(BlockPos p1, BlockPos p2, BlockPos p3) {
-        List<BlockPos> list = new ArrayList<>();
-        
-        int x1 = p1.getX(), y1 = p1.getY(), z1 = p1.getZ();
-        int x2 = p2.getX(), y2 = p2.getY(), z2 = p2.getZ();
-        int x3 = p3.getX(), y3 = p3.getY(), z3 = p3.getZ();
-        
-        // P1 to P2 determines trunk direction and branch interval
-        int dx12 = x2 - x1;
-        int dy12 = y2 - y1;
-        int dz12 = z2 - z1;
-        
-        // Find the dominant axis for trunk direction (largest absolute delta)
-        int absDx = Math.abs(dx12);
-        int absDy = Math.abs(dy12);
-        int absDz = Math.abs(dz12);
-        
-        // Trunk axis: 0=X, 1=Y, 2=Z
-        int trunkAxis;
-        int trunkDir;
-        int interval;
-        
-        if (absDx >= absDy && absDx >= absDz) {
-            trunkAxis = 0; // X
-            trunkDir = dx12 == 0 ? 1 : Integer.signum(dx12);
-            interval = Math.max(1, absDx);
-        } else if (absDy >= absDx && absDy >= absDz) {
-            trunkAxis = 1; // Y
-            trunkDir = dy12 == 0 ? 1 : Integer.signum(dy12);
-            interval = Math.max(1, absDy);
-        } else {
-            trunkAxis = 2; // Z
-            trunkDir = dz12 == 0 ? 1 : Integer.signum(dz12);
-            interval = Math.max(1, absDz);
-        }
-        
-        // P1 to P3 determines the extent of the plane
-        int dx13 = x3 - x1;
-        int dy13 = y3 - y1;
-        int dz13 = z3 - z1;
-        
-        // Determine branch axis (different from trunk axis, choose the one with largest delta)
-        int branchAxis;
-        int branchDir;
-        int trunkLength;
-        int branchLength;
-        
-        if (trunkAxis == 0) {
-            // Trunk along X, branch along Y or Z
-            trunkLength = Math.abs(dx13);
-            if (Math.abs(dy13) >= Math.abs(dz13)) {
-                branchAxis = 1; // Y
-                branchLength = Math.abs(dy13);
-                branchDir = dy13 == 0 ? 1 : Integer.signum(dy13);
-            } else {
-                branchAxis = 2; // Z
-                branchLength = Math.abs(dz13);
-                branchDir = dz13 == 0 ? 1 : Integer.signum(dz13);
-            }
-        } else if (trunkAxis == 1) {
-            // Trunk along Y, branch along X or Z
-            trunkLength = Math.abs(dy13);
-            if (Math.abs(dx13) >= Math.abs(dz13)) {
-                branchAxis = 0; // X
-                branchLength = Math.abs(dx13);
-                branchDir = dx13 == 0 ? 1 : Integer.signum(dx13);
-            } else {
-                branchAxis = 2; // Z
-                branchLength = Math.abs(dz13);
-                branchDir = dz13 == 0 ? 1 : Integer.signum(dz13);
-            }
-        } else {
-            // Trunk along Z, branch along X or Y
-            trunkLength = Math.abs(dz13);
-            if (Math.abs(dx13) >= Math.abs(dy13)) {
-                branchAxis = 0; // X
-                branchLength = Math.abs(dx13);
-                branchDir = dx13 == 0 ? 1 : Integer.signum(dx13);
-            } else {
-                branchAxis = 1; // Y
-                branchLength = Math.abs(dy13);
-                branchDir = dy13 == 0 ? 1 : Integer.signum(dy13);
-            }
-        }
-        
-        // Generate trunk and branches using the determined axes
-        for (int t = 0; t <= trunkLength; t++) {
-            int tx = x1, ty = y1, tz = z1;
-            
-            // Move along trunk axis
-            if (trunkAxis == 0) tx = x1 + t * trunkDir;
-            else if (trunkAxis == 1) ty = y1 + t * trunkDir;
-            else tz = z1 + t * trunkDir;
-            
-            // Add trunk position
-            list.add(new BlockPos(tx, ty, tz));
-            
-            // Add branches at intervals
-            if (t % interval == 0) {
-                for (int b = 1; b <= branchLength; b++) {
-                    int bx = tx, by = ty, bz = tz;
-                    
-                    // Move along branch axis
-                    if (branchAxis == 0) bx = tx + b * branchDir;
-                    else if (branchAxis == 1) by = ty + b * branchDir;
-                    else bz = tz + b * branchDir;
-                    
-                    list.add(new BlockPos(bx, by, bz));
-                }
-            }
-        }
-        
-        return list;
+        return CablePositions.toList(CablePositions.branch(p1, p2, p3));
     }
 
     public static void setPoint1(ItemStack stack, @Nullable BlockPos pos) {
@@ -900,14 +893,21 @@ public class ItemMECablePlacementTool extends BasePlacementToolItem implements I
     }
 
     @Nullable
-    private AEColor getDyeColorFromStack(ItemStack stack) {
+    private static AEColor getDyeColorFromStack(ItemStack stack) {
         if (!stack.isEmpty() && stack.getItem() instanceof DyeItem dyeItem) {
             return AEColor.fromDye(dyeItem.getDyeColor());
         }
         return null;
     }
 
-    private ColorLogicResult determineColorLogic(Player player, ItemStack tool) {
+    /**
+     * The color cables will be placed in: the offhand dye, else the selected color with the upgrade, else fluix.
+     */
+    public static AEColor getPlacementColor(Player player, ItemStack tool) {
+        return determineColorLogic(player, tool).color;
+    }
+
+    private static ColorLogicResult determineColorLogic(Player player, ItemStack tool) {
         ItemStack offhandStack = player.getItemInHand(InteractionHand.OFF_HAND);
         AEColor offhandDyeColor = getDyeColorFromStack(offhandStack);
         boolean hasUpgrade = hasUpgrade(tool);
@@ -1039,23 +1039,7 @@ public class ItemMECablePlacementTool extends BasePlacementToolItem implements I
      * Ported from effortless-building Line.getLineBlocks()
      */
     public static List<BlockPos> getLineBlocks(int x1, int y1, int z1, int x2, int y2, int z2) {
-        List<BlockPos> list = new ArrayList<>();
-
-        if (x1 != x2) {
-            for (int x = x1; x1 < x2 ? x <= x2 : x >= x2; x += x1 < x2 ? 1 : -1) {
-                list.add(new BlockPos(x, y1, z1));
-            }
-        } else if (y1 != y2) {
-            for (int y = y1; y1 < y2 ? y <= y2 : y >= y2; y += y1 < y2 ? 1 : -1) {
-                list.add(new BlockPos(x1, y, z1));
-            }
-        } else {
-            for (int z = z1; z1 < z2 ? z <= z2 : z >= z2; z += z1 < z2 ? 1 : -1) {
-                list.add(new BlockPos(x1, y1, z));
-            }
-        }
-
-        return list;
+        return CablePositions.toList(CablePositions.line(x1, y1, z1, x2, y2, z2));
     }
 
     private static Vec3 getPlayerLookVec(Player player) {
@@ -72,12 +72,9 @@ public class ItemMEPlacementTool extends BasePlacementToolItem implements IMenuI
             return InteractionResult.FAIL;
         }
 
-        // read config NBT from item
-        CompoundTag cfg = WandNbt.getConfig(wand);
-        int selected = WandNbt.getSelectedSlot(cfg);
-        var handler = WandNbt.readInventory(cfg);
-
-        ItemStack target = handler.getStackInSlot(selected);
+        // read config NBT from item (decoded once and cached; copy since placement may modify the stack)
+        var config = WandConfigCache.get(wand);
+        ItemStack target = config.getSelectedStack().copy();
         if (target == null || target.isEmpty()) {
             player.displayClientMessage(Component.translatable("message.meplacementtool.no_configured_item"), true);
             return InteractionResult.FAIL;
@@ -104,14 +101,7 @@ public class ItemMEPlacementTool extends BasePlacementToolItem implements IMenuI
         } catch (Exception ignored) {}
 
         // Check if the selected slot is a fluid (stored in placement_config.fluids)
-        String fluidId = null;
-        if (cfg != null && cfg.contains("fluids")) {
-            var ftag = cfg.getCompound("fluids");
-            if (ftag.contains(Integer.toString(selected))) {
-                fluidId = ftag.getString(Integer.toString(selected));
-                if (fluidId != null && fluidId.isEmpty()) fluidId = null;
-            }
-        }
+        String fluidId = config.getFluidId(config.getSelectedSlot());
 
         if (fluidId != null) {
             try {
@@ -131,7 +121,7 @@ public class ItemMEPlacementTool extends BasePlacementToolItem implements IMenuI
         }
 
         // Find a matching item in the AE network (respects NBT whitelist config)
-        var aeKey = Config.findMatchingKey(storage, target);
+        var aeKey = Config.findMatchingKey(grid.getStorageService(), target);
         if (aeKey == null) {
                 var itemId = net.minecraftforge.registries.ForgeRegistries.ITEMS.getKey(target.getItem());
             
@@ -148,9 +138,9 @@ public class ItemMEPlacementTool extends BasePlacementToolItem implements IMenuI
         
         // (debug logs removed)
 
-        // simulate extract to ensure availability, but defer actual extraction until after successful placement
-        long avail = storage.extract(aeKey, 1L, appeng.api.config.Actionable.SIMULATE, src);
-        if (avail <= 0) {
+        // Take the item up front; it goes back to the network if placement fails
+        var transaction = new PlacementTransaction(storage, src, player);
+        if (transaction.reserve(aeKey, 1L) <= 0) {
             // Check if the item can be crafted
             var craftingService = grid.getCraftingService();
             if (craftingService != null && craftingService.isCraftable(aeKey)) {
@@ -167,15 +157,23 @@ public class ItemMEPlacementTool extends BasePlacementToolItem implements IMenuI
             var resourceCheck = MemoryCardHelper.checkResourcesForMultipleBlocks(player, grid, 1);
             if (!resourceCheck.sufficient) {
                 String missing = resourceCheck.getMissingItemsMessage();
+                transaction.cancel();
                 player.displayClientMessage(Component.translatable("message.meplacementtool.missing_resources", missing), false);
                 return InteractionResult.sidedSuccess(false);
             }
         }
 
+        if (!transaction.reserveEnergy(this, wand, ENERGY_COST, 1)) {
+            transaction.cancel();
+            player.displayClientMessage(Component.translatable("message.meplacementtool.device_not_powered"), true);
+            return InteractionResult.FAIL;
+        }
+
         // Check for Mekanism configuration card (no resource requirements)
         boolean hasMekConfigCard = ModCompat.isMekanismLoaded() && MekanismConfigCardHelper.hasConfiguredConfigCard(player);
 
         // create stack to place
+        transaction.allocate();
         ItemStack placeStack = aeKey.toStack(1);
         
         // (debug logs removed)
@@ -185,20 +183,17 @@ public class ItemMEPlacementTool extends BasePlacementToolItem implements IMenuI
         BlockPos partTargetPos = context.getClickedPos();
         boolean placed = false;
         // track placement result
-        // capture previous block state for the block placement position (used for possible rollback)
+        // capture previous block state for the block placement position (sent with the client update)
         var prevStateBlock = level.getBlockState(blockPlacePos);
         try {
             if (placeStack.getItem() instanceof net.minecraft.world.item.BlockItem blockItem) {
                 // Some mods (including AE) check the player's held stack during placement.
-                // Temporarily replace the player's MAIN hand with the extracted stack so placement logic sees it.
-                // Also capture original main/off hand to restore afterwards.
-                ItemStack origMain = player.getMainHandItem().copy();
-                ItemStack origOff = player.getOffhandItem().copy();
+                // Place through the player's proxy holding the extracted stack, so their own hands are untouched.
+                var proxy = PlacementProxy.of((net.minecraft.server.level.ServerLevel) level, serverPlayer, placeStack);
                 try {
-                    player.setItemInHand(InteractionHand.MAIN_HAND, placeStack);
                     // Create BlockPlaceContext with the correct placeStack (including NBT like energy)
                     BlockPlaceContext placeContext = new BlockPlaceContext(
-                        level, player, InteractionHand.MAIN_HAND, placeStack,
+                        level, proxy, InteractionHand.MAIN_HAND, placeStack,
                         new net.minecraft.world.phys.BlockHitResult(
                             context.getClickLocation(), context.getClickedFace(),
                             context.getClickedPos(), context.isInside()
@@ -214,24 +209,20 @@ public class ItemMEPlacementTool extends BasePlacementToolItem implements IMenuI
                 } catch (Exception t) {
                     LOGGER.warn("Exception during placement attempt for player {} at {}", player.getName().getString(), blockPlacePos, t);
                 } finally {
-                    // restore original items
-                    player.setItemInHand(InteractionHand.MAIN_HAND, origMain);
-                    player.setItemInHand(InteractionHand.OFF_HAND, origOff);
+                    proxy.release();
                 }
             } else if (placeStack.getItem() instanceof appeng.api.parts.IPartItem<?>) {
                 // AE part placement (eg. ME Smart Cable) - use AE2's own placement calculation
-                ItemStack origMain = player.getMainHandItem().copy();
-                ItemStack origOff = player.getOffhandItem().copy();
+                var proxy = PlacementProxy.of((net.minecraft.server.level.ServerLevel) level, serverPlayer, placeStack);
                 try {
-                    player.setItemInHand(InteractionHand.MAIN_HAND, placeStack);
                     try {
                         // Use AE2's PartPlacement.getPartPlacement to compute where AE would place this part (same as preview)
-                        var placement = appeng.parts.PartPlacement.getPartPlacement(player, level, placeStack, context.getClickedPos(), context.getClickedFace(), context.getClickLocation());
+                        var placement = appeng.parts.PartPlacement.getPartPlacement(proxy, level, placeStack, context.getClickedPos(), context.getClickedFace(), context.getClickLocation());
                         if (placement != null) {
                             var serverLevel = (level instanceof net.minecraft.server.level.ServerLevel) ? (net.minecraft.server.level.ServerLevel) level : null;
                             if (serverLevel != null) {
                                 // Use AE2's placePart which performs host creation, collision checks and settings import
-                                var part = appeng.parts.PartPlacement.placePart(player, serverLevel, (appeng.api.parts.IPartItem) placeStack.getItem(), placeStack.getTag(), placement.pos(), placement.side());
+                                var part = appeng.parts.PartPlacement.placePart(proxy, serverLevel, (appeng.api.parts.IPartItem) placeStack.getItem(), placeStack.getTag(), placement.pos(), placement.side());
                                 if (part != null) {
                                     placed = true;
                                     lastPlacementPos = placement.pos();
@@ -247,17 +238,14 @@ public class ItemMEPlacementTool extends BasePlacementToolItem implements IMenuI
                 } catch (Exception t) {
                     LOGGER.warn("Exception during part placement attempt for player {} at {}", player.getName().getString(), partTargetPos, t);
                 } finally {
-                    player.setItemInHand(InteractionHand.MAIN_HAND, origMain);
-                    player.setItemInHand(InteractionHand.OFF_HAND, origOff);
+                    proxy.release();
                 }
             } else if (placeStack.getItem() instanceof appeng.api.implementations.items.IFacadeItem) {
                 // AE facade placement - use AE2's facade placement logic
                 // (facade debug logs removed)
                 
-                ItemStack origMain = player.getMainHandItem().copy();
-                ItemStack origOff = player.getOffhandItem().copy();
+                // The facade is added to the host directly; nothing here looks at held items
                 try {
-                    player.setItemInHand(InteractionHand.MAIN_HAND, placeStack);
                     try {
                         var facadeItem = (appeng.api.implementations.items.IFacadeItem) placeStack.getItem();
                         var facade = facadeItem.createPartFromItemStack(placeStack, context.getClickedFace());
@@ -309,67 +297,40 @@ public class ItemMEPlacementTool extends BasePlacementToolItem implements IMenuI
                 } catch (Exception t) {
                     LOGGER.error("Exception during facade placement for player {} at {}",
                         player.getName().getString(), context.getClickedPos(), t);
-                } finally {
-                    player.setItemInHand(InteractionHand.MAIN_HAND, origMain);
-                    player.setItemInHand(InteractionHand.OFF_HAND, origOff);
                 }
             }
         } catch (Exception ignored) {
         }
 
         if (placed) {
-            // After successful placement, perform the actual AE extraction. If extraction fails, roll back placement.
-            long extracted = storage.extract(aeKey, 1L, appeng.api.config.Actionable.MODULATE, src);
-            if (extracted <= 0) {
-                // Attempt rollback
-                BlockPos revertPos = lastPlacementPos != null ? lastPlacementPos : blockPlacePos;
-                try {
-                    if (lastPlacementWasBlock) {
-                        level.setBlockAndUpdate(revertPos, prevStateBlock);
-                    } else {
-                        // For part placements we cannot reliably revert generically; just log the situation
-                        LOGGER.warn("Extraction failed after part placement at {} — manual cleanup may be required", revertPos);
-                    }
-                } catch (Exception t) {
-                    LOGGER.warn("Failed to revert block at {}", revertPos, t);
-                }
-                // drop the stack as fallback
-                var ent = new net.minecraft.world.entity.item.ItemEntity(level, revertPos.getX() + 0.5, revertPos.getY() + 0.5,
-                        revertPos.getZ() + 0.5, placeStack);
-                level.addFreshEntity(ent);
-                level.playSound(null, revertPos, SoundEvents.ITEM_PICKUP, SoundSource.PLAYERS, 0.8F, 1.0F);
-            } else {
-                // consume power and play placement sound
-                // Re-fetch the wand from player's hand since restoring origMain may have replaced the ItemStack reference
-                ItemStack actualWand = player.getItemInHand(context.getHand());
-                this.usePower(player, ENERGY_COST, actualWand);
-                BlockPos soundPos = lastPlacementPos != null ? lastPlacementPos : blockPlacePos;
-                // Play the block's own placement sound
-                var placedState = level.getBlockState(soundPos);
-                var soundType = placedState.getSoundType(level, soundPos, player);
-                level.playSound(null, soundPos, soundType.getPlaceSound(), SoundSource.BLOCKS, 
-                    (soundType.getVolume() + 1.0F) / 2.0F, soundType.getPitch() * 0.8F);
-                // Ensure clients receive the block update immediately
-                try {
-                    var finalState = level.getBlockState(soundPos);
-                    level.sendBlockUpdated(soundPos, prevStateBlock, finalState, 3);
-                } catch (Exception ignored) {}
-
-                // Apply memory card / config card settings from off-hand if present
-                if (MemoryCardHelper.hasConfiguredMemoryCard(player)) {
-                    if (lastPlacementWasBlock) {
-                        MemoryCardHelper.applyMemoryCardToBlock(player, level, soundPos, true, grid);
-                    } else if (lastPlacedPart != null) {
-                        MemoryCardHelper.applyMemoryCardToPart(player, lastPlacedPart, true, grid);
-                    }
-                } else if (hasMekConfigCard && lastPlacementWasBlock) {
-                    // Mekanism Configuration Card (only for blocks, not parts)
-                    MekanismConfigCardHelper.applyConfigCardToBlock(player, level, soundPos, true);
+            // The item and power were paid up front
+            transaction.commit(1);
+            BlockPos soundPos = lastPlacementPos != null ? lastPlacementPos : blockPlacePos;
+            // Play the block's own placement sound
+            var placedState = level.getBlockState(soundPos);
+            var soundType = placedState.getSoundType(level, soundPos, player);
+            level.playSound(null, soundPos, soundType.getPlaceSound(), SoundSource.BLOCKS, 
+                (soundType.getVolume() + 1.0F) / 2.0F, soundType.getPitch() * 0.8F);
+            // Ensure clients receive the block update immediately
+            try {
+                var finalState = level.getBlockState(soundPos);
+                level.sendBlockUpdated(soundPos, prevStateBlock, finalState, 3);
+            } catch (Exception ignored) {}
+
+            // Apply memory card / config card settings from off-hand if present
+            if (MemoryCardHelper.hasConfiguredMemoryCard(player)) {
+                if (lastPlacementWasBlock) {
+                    MemoryCardHelper.applyMemoryCardToBlock(player, level, soundPos, true, grid);
+                } else if (lastPlacedPart != null) {
+                    MemoryCardHelper.applyMemoryCardToPart(player, lastPlacedPart, true, grid);
                 }
+            } else if (hasMekConfigCard && lastPlacementWasBlock) {
+                // Mekanism Configuration Card (only for blocks, not parts)
+                MekanismConfigCardHelper.applyConfigCardToBlock(player, level, soundPos, true);
             }
         } else {
-            // placement did not succeed — notify player
-            // debug removed: placement failure details
+            // placement did not succeed — return the item and power, notify player
+            transaction.cancel();
             player.displayClientMessage(Component.translatable("message.meplacementtool.cannot_place"), true);
         }
 
@@ -384,13 +345,19 @@ public class ItemMEPlacementTool extends BasePlacementToolItem implements IMenuI
             net.minecraft.world.level.material.Fluid fluid) {
 
         BlockPos fluidPlacePos = context.getClickedPos().relative(context.getClickedFace());
-        var prevState = level.getBlockState(fluidPlacePos);
 
-        long simAvail = storage.extract(aeFluidKey, appeng.api.stacks.AEFluidKey.AMOUNT_BLOCK, appeng.api.config.Actionable.SIMULATE, src);
-        if (simAvail < appeng.api.stacks.AEFluidKey.AMOUNT_BLOCK) {
+        // Take the fluid and power up front; they go back if placement fails
+        var transaction = new PlacementTransaction(storage, src, player);
+        if (transaction.reserve(aeFluidKey, appeng.api.stacks.AEFluidKey.AMOUNT_BLOCK) < appeng.api.stacks.AEFluidKey.AMOUNT_BLOCK) {
+            transaction.cancel();
             player.displayClientMessage(Component.translatable("message.meplacementtool.network_missing", aeFluidKey.getDisplayName()), true);
             return InteractionResult.FAIL;
         }
+        if (!transaction.reserveEnergy(this, wand, energyCost, 1)) {
+            transaction.cancel();
+            player.displayClientMessage(Component.translatable("message.meplacementtool.device_not_powered"), true);
+            return InteractionResult.FAIL;
+        }
 
         boolean placedFluid = false;
         try {
@@ -440,17 +407,13 @@ public class ItemMEPlacementTool extends BasePlacementToolItem implements IMenuI
         }
 
         if (placedFluid) {
-            long extracted = storage.extract(aeFluidKey, appeng.api.stacks.AEFluidKey.AMOUNT_BLOCK, appeng.api.config.Actionable.MODULATE, src);
-            if (extracted <= 0) {
-                try { level.setBlockAndUpdate(fluidPlacePos, prevState); } catch (Exception t) { LOGGER.warn("Failed to revert fluid block at {}", fluidPlacePos, t); }
-                player.displayClientMessage(Component.translatable("message.meplacementtool.cannot_place"), true);
-                return InteractionResult.sidedSuccess(false);
-            }
-            this.usePower(player, energyCost, wand);
+            transaction.allocate(appeng.api.stacks.AEFluidKey.AMOUNT_BLOCK);
+            transaction.commit(1);
             level.playSound(null, fluidPlacePos, SoundEvents.BUCKET_EMPTY, SoundSource.BLOCKS, 1.0F, 1.0F);
             return InteractionResult.sidedSuccess(false);
         }
 
+        transaction.cancel();
         player.displayClientMessage(Component.translatable("message.meplacementtool.cannot_place"), true);
         return InteractionResult.sidedSuccess(false);
     }
@@ -22,6 +22,7 @@ import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.network.chat.Component;
 import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.InteractionResult;
@@ -145,20 +146,15 @@ public class ItemMultiblockPlacementTool extends BasePlacementToolItem implement
             return InteractionResult.FAIL;
         }
 
-        CompoundTag cfg = WandNbt.getConfig(wand);
-        int selected = WandNbt.getSelectedSlot(cfg);
-        var handler = WandNbt.readInventory(cfg);
-
-        ItemStack target = handler.getStackInSlot(selected);
+        // Decoded once and cached; copy since placement may modify the stack
+        var config = WandConfigCache.get(wand);
+        ItemStack target = config.getSelectedStack().copy();
         if (target == null || target.isEmpty()) {
             player.displayClientMessage(Component.translatable("message.meplacementtool.no_configured_item"), true);
             return InteractionResult.FAIL;
         }
 
-        DirectionMode directionMode = DirectionMode.AUTO;
-        if (cfg != null && cfg.contains("DirectionMode")) {
-            directionMode = DirectionMode.fromId(cfg.getInt("DirectionMode"));
-        }
+        DirectionMode directionMode = config.getDirectionMode();
 
         var storage = grid.getStorageService().getInventory();
         var src = new appeng.me.helpers.PlayerSource(player);
@@ -170,107 +166,12 @@ public class ItemMultiblockPlacementTool extends BasePlacementToolItem implement
             var unwrapped = appeng.api.stacks.GenericStack.unwrapItemStack(target);
             if (unwrapped != null && appeng.api.stacks.AEFluidKey.is(unwrapped.what())) {
                 var aeFluidKey = (appeng.api.stacks.AEFluidKey) unwrapped.what();
-                var fluid = aeFluidKey.getFluid();
-
-                // Check if fluid is a flowing fluid
-                if (!(fluid instanceof net.minecraft.world.level.material.FlowingFluid)) {
-                    player.displayClientMessage(Component.translatable("message.meplacementtool.unsupported_target"), true);
-                    return InteractionResult.FAIL;
-                }
-
-                var legacyBlock = fluid.defaultFluidState().createLegacyBlock();
-                BlockPos clickedPos = context.getClickedPos();
-                var clickedFace = context.getClickedFace();
-                var clickedState = level.getBlockState(clickedPos);
-
-                var placePositions = PlacementBfs.findPositions(
-                    clickedPos.relative(clickedFace), placementCount, clickedFace, directionMode,
-                    candidate -> {
-                        BlockPos supportingPoint = candidate.relative(clickedFace.getOpposite());
-                        return level.getBlockState(supportingPoint).getBlock() == clickedState.getBlock();
-                    },
-                    candidate -> {
-                        var stateAtPos = level.getBlockState(candidate);
-                        boolean stateIsLegacy = stateAtPos == legacyBlock;
-                        boolean stateIsAir = stateAtPos.isAir();
-                        boolean canBeReplaced = false;
-                        try { canBeReplaced = stateAtPos.canBeReplaced(fluid); } catch (Exception ignored) {}
-                        boolean isLiquidContainer = stateAtPos.getBlock() instanceof net.minecraft.world.level.block.LiquidBlockContainer;
-                        boolean containerCanPlace = false;
-                        if (isLiquidContainer) {
-                            try {
-                                containerCanPlace = ((net.minecraft.world.level.block.LiquidBlockContainer) stateAtPos.getBlock())
-                                        .canPlaceLiquid(level, candidate, stateAtPos, fluid);
-                            } catch (Exception ignored) {}
-                        }
-                        return !stateIsLegacy && !aeFluidKey.hasTag() && (stateIsAir || canBeReplaced || (isLiquidContainer && containerCanPlace));
-                    }
-                );
-                if (placePositions.isEmpty()) {
-                    player.displayClientMessage(Component.translatable("message.meplacementtool.cannot_place"), true);
-                    return InteractionResult.sidedSuccess(false);
-                }
-
-                // Check if network has enough fluid
-                long totalFluidNeeded = (long) placePositions.size() * appeng.api.stacks.AEFluidKey.AMOUNT_BLOCK;
-                long simAvail = storage.extract(aeFluidKey, totalFluidNeeded, appeng.api.config.Actionable.SIMULATE, src);
-                if (simAvail < totalFluidNeeded) {
-                    player.displayClientMessage(Component.translatable("message.meplacementtool.network_missing", aeFluidKey.getDisplayName()), true);
-                    return InteractionResult.FAIL;
-                }
-
-                // Place fluids at all positions
-                int placedCount = 0;
-                for (BlockPos placePos : placePositions) {
-                    try {
-                        var stateAtPos = level.getBlockState(placePos);
-                        boolean stateIsAir = stateAtPos.isAir();
-                        boolean canBeReplaced = false;
-                        try { canBeReplaced = stateAtPos.canBeReplaced(fluid); } catch (Exception ignored) {}
-                        boolean isLiquidContainer = stateAtPos.getBlock() instanceof net.minecraft.world.level.block.LiquidBlockContainer;
-
-                        boolean success = false;
-                        if (level.dimensionType().ultraWarm() && fluid.is(net.minecraft.tags.FluidTags.WATER)) {
-                            success = true; // Water evaporates but still counts
-                        } else if (isLiquidContainer && fluid == net.minecraft.world.level.material.Fluids.WATER) {
-                            ((net.minecraft.world.level.block.LiquidBlockContainer) stateAtPos.getBlock())
-                                    .placeLiquid(level, placePos, stateAtPos, ((net.minecraft.world.level.material.FlowingFluid) fluid).getSource(false));
-                            success = true;
-                        } else {
-                            if (canBeReplaced && !stateAtPos.liquid()) {
-                                level.destroyBlock(placePos, true);
-                            }
-                            success = level.setBlock(placePos, legacyBlock, net.minecraft.world.level.block.Block.UPDATE_ALL_IMMEDIATE);
-                        }
-                        if (success) {
-                            placedCount++;
-                        }
-                    } catch (Exception t) {
-                        LOGGER.warn("Exception during fluid placement at {}", placePos, t);
-                    }
-                }
-
-                if (placedCount > 0) {
-                    long extracted = storage.extract(aeFluidKey, (long) placedCount * appeng.api.stacks.AEFluidKey.AMOUNT_BLOCK, appeng.api.config.Actionable.MODULATE, src);
-                    LOGGER.debug("Consuming {} AE from wand for player {} (placedCount={})", ENERGY_COST * placedCount / placementCount, player.getName().getString(), placedCount);
-                    this.usePower(player, ENERGY_COST * placedCount / placementCount, wand);
-                    level.playSound(null, clickedPos.relative(clickedFace), SoundEvents.BUCKET_EMPTY, SoundSource.BLOCKS, 1.0F, 1.0F);
-                    return InteractionResult.sidedSuccess(false);
-                } else {
-                    player.displayClientMessage(Component.translatable("message.meplacementtool.cannot_place"), true);
-                    return InteractionResult.sidedSuccess(false);
-                }
+                return placeFluid(serverPlayer, level, wand, context, placementCount, directionMode, storage, src,
+                        aeFluidKey, aeFluidKey.getFluid());
             }
         } catch (Exception ignored) {}
 
-        String fluidId = null;
-        if (cfg != null && cfg.contains("fluids")) {
-            var ftag = cfg.getCompound("fluids");
-            if (ftag.contains(Integer.toString(selected))) {
-                fluidId = ftag.getString(Integer.toString(selected));
-                if (fluidId != null && fluidId.isEmpty()) fluidId = null;
-            }
-        }
+        String fluidId = config.getFluidId(config.getSelectedSlot());
 
         if (fluidId != null) {
             try {
@@ -281,101 +182,16 @@ public class ItemMultiblockPlacementTool extends BasePlacementToolItem implement
                     return InteractionResult.FAIL;
                 }
 
-                // Check if fluid is a flowing fluid
-                if (!(fluid instanceof net.minecraft.world.level.material.FlowingFluid)) {
-                    player.displayClientMessage(Component.translatable("message.meplacementtool.unsupported_target"), true);
-                    return InteractionResult.FAIL;
-                }
-
                 var aeFluidKey = appeng.api.stacks.AEFluidKey.of(fluid);
-                var legacyBlock = fluid.defaultFluidState().createLegacyBlock();
-                BlockPos clickedPos = context.getClickedPos();
-                var clickedFace = context.getClickedFace();
-                var clickedState = level.getBlockState(clickedPos);
-
-                var placePositions = PlacementBfs.findPositions(
-                    clickedPos.relative(clickedFace), placementCount, clickedFace, directionMode,
-                    candidate -> {
-                        BlockPos supportingPoint = candidate.relative(clickedFace.getOpposite());
-                        return level.getBlockState(supportingPoint).getBlock() == clickedState.getBlock();
-                    },
-                    candidate -> {
-                        var stateAtPos = level.getBlockState(candidate);
-                        boolean stateIsLegacy = stateAtPos == legacyBlock;
-                        boolean stateIsAir = stateAtPos.isAir();
-                        boolean canBeReplaced = false;
-                        try { canBeReplaced = stateAtPos.canBeReplaced(fluid); } catch (Exception ignored) {}
-                        boolean isLiquidContainer = stateAtPos.getBlock() instanceof net.minecraft.world.level.block.LiquidBlockContainer;
-                        boolean containerCanPlace = false;
-                        if (isLiquidContainer) {
-                            try {
-                                containerCanPlace = ((net.minecraft.world.level.block.LiquidBlockContainer) stateAtPos.getBlock())
-                                        .canPlaceLiquid(level, candidate, stateAtPos, fluid);
-                            } catch (Exception ignored) {}
-                        }
-                        return !stateIsLegacy && !aeFluidKey.hasTag() && (stateIsAir || canBeReplaced || (isLiquidContainer && containerCanPlace));
-                    }
-                );
-                if (placePositions.isEmpty()) {
-                    player.displayClientMessage(Component.translatable("message.meplacementtool.cannot_place"), true);
-                    return InteractionResult.sidedSuccess(false);
-                }
-
-                // Check if network has enough fluid
-                long totalFluidNeeded = (long) placePositions.size() * appeng.api.stacks.AEFluidKey.AMOUNT_BLOCK;
-                long simAvail = storage.extract(aeFluidKey, totalFluidNeeded, appeng.api.config.Actionable.SIMULATE, src);
-                if (simAvail < totalFluidNeeded) {
-                    player.displayClientMessage(Component.translatable("message.meplacementtool.network_missing", aeFluidKey.getDisplayName()), true);
-                    return InteractionResult.FAIL;
-                }
-
-                // Place fluids at all positions
-                int placedCount = 0;
-                for (BlockPos placePos : placePositions) {
-                    try {
-                        var stateAtPos = level.getBlockState(placePos);
-                        boolean stateIsAir = stateAtPos.isAir();
-                        boolean canBeReplaced = false;
-                        try { canBeReplaced = stateAtPos.canBeReplaced(fluid); } catch (Exception ignored) {}
-                        boolean isLiquidContainer = stateAtPos.getBlock() instanceof net.minecraft.world.level.block.LiquidBlockContainer;
-
-                        boolean success = false;
-                        if (level.dimensionType().ultraWarm() && fluid.is(net.minecraft.tags.FluidTags.WATER)) {
-                            success = true; // Water evaporates but still counts
-                        } else if (isLiquidContainer && fluid == net.minecraft.world.level.material.Fluids.WATER) {
-                            ((net.minecraft.world.level.block.LiquidBlockContainer) stateAtPos.getBlock())
-                                    .placeLiquid(level, placePos, stateAtPos, ((net.minecraft.world.level.material.FlowingFluid) fluid).getSource(false));
-                            success = true;
-                        } else {
-                            if (canBeReplaced && !stateAtPos.liquid()) {
-                                level.destroyBlock(placePos, true);
-                            }
-                            success = level.setBlock(placePos, legacyBlock, net.minecraft.world.level.block.Block.UPDATE_ALL_IMMEDIATE);
-                        }
-                        if (success) {
-                            placedCount++;
-                        }
-                    } catch (Exception t) {
-                        LOGGER.warn("Exception during fluid placement at {}", placePos, t);
-                    }
-                }
-
-                if (placedCount > 0) {
-                    long extracted = storage.extract(aeFluidKey, (long) placedCount * appeng.api.stacks.AEFluidKey.AMOUNT_BLOCK, appeng.api.config.Actionable.MODULATE, src);
-                    this.usePower(player, ENERGY_COST * placedCount / placementCount, wand);
-                    level.playSound(null, clickedPos.relative(clickedFace), SoundEvents.BUCKET_EMPTY, SoundSource.BLOCKS, 1.0F, 1.0F);
-                    return InteractionResult.sidedSuccess(false);
-                } else {
-                    player.displayClientMessage(Component.translatable("message.meplacementtool.cannot_place"), true);
-                    return InteractionResult.sidedSuccess(false);
-                }
+                return placeFluid(serverPlayer, level, wand, context, placementCount, directionMode, storage, src,
+                        aeFluidKey, fluid);
             } catch (Exception t) {
                 LOGGER.warn("Exception during fluid placement for player {} at {}", player.getName().getString(), context.getClickedPos(), t);
             }
         }
 
         // Find all matching items in the AE network (respects NBT whitelist config)
-        var matchingKeys = Config.findAllMatchingKeys(storage, target);
+        var matchingKeys = Config.findAllMatchingKeys(grid.getStorageService(), target);
         if (matchingKeys.isEmpty()) {
             // Check if the item can be crafted
             var craftKey = appeng.api.stacks.AEItemKey.of(target);
@@ -422,96 +238,86 @@ public class ItemMultiblockPlacementTool extends BasePlacementToolItem implement
             Direction partSide = firstPlacement.side();
             boolean placingOnClickedHost = firstPlacement.pos().equals(clickedPos);
 
+            LoadedChunks chunks = new LoadedChunks(level);
+            SectionBlockReader blocks = new SectionBlockReader(level);
             var placePositions = PlacementBfs.findPositions(
                 firstPlacement.pos(), placementCount, context.getClickedFace(), directionMode,
                 candidate -> {
                     if (placingOnClickedHost) {
-                        return level.getBlockState(candidate).getBlock() == clickedState.getBlock();
+                        return blocks.getBlockState(candidate).getBlock() == clickedState.getBlock();
                     } else {
-                        return level.getBlockState(candidate.relative(partSide)).getBlock() == clickedState.getBlock();
+                        return blocks.getBlockState(candidate, partSide).getBlock() == clickedState.getBlock();
                     }
                 },
-                candidate -> canPlaceConfiguredPartOnCable(player, level, target, candidate, partSide)
+                candidate -> canPlaceConfiguredPartOnCable(player, level, target, candidate, partSide),
+                chunks
             );
 
             if (placePositions.isEmpty()) {
-                player.displayClientMessage(Component.translatable("message.meplacementtool.cannot_place"), true);
+                player.displayClientMessage(nothingToPlace(chunks), true);
                 return InteractionResult.sidedSuccess(false);
             }
 
-            int placedCount = 0;
-            List<UndoHistory.PlacementSnapshot> placedSnapshots = new ArrayList<>();
-            java.util.Map<appeng.api.stacks.AEItemKey, Long> extractionMap = new java.util.LinkedHashMap<>();
-            java.util.List<java.util.Map.Entry<appeng.api.stacks.AEItemKey, Long>> availableKeys = new java.util.ArrayList<>();
-            for (var entry : matchingKeys) {
-                availableKeys.add(new java.util.AbstractMap.SimpleEntry<>(entry.getKey(), entry.getValue()));
+            var transaction = reserveForPositions(storage, src, player, wand, matchingKeys, placePositions.size());
+            if (transaction == null) {
+                player.displayClientMessage(Component.translatable("message.meplacementtool.device_not_powered"), true);
+                return InteractionResult.FAIL;
             }
 
-            for (BlockPos placePos : placePositions) {
-                appeng.api.stacks.AEItemKey currentKey = null;
-                for (var entry : availableKeys) {
-                    if (entry.getValue() > 0) {
-                        currentKey = entry.getKey();
-                        entry.setValue(entry.getValue() - 1);
-                        break;
-                    }
-                }
-
-                if (currentKey == null) {
-                    break;
-                }
+            List<UndoHistory.PlacementSnapshot> placedSnapshots = new ArrayList<>();
 
-                var placeStack = currentKey.toStack(1);
-                if (!(placeStack.getItem() instanceof IPartItem<?> partItem)) {
-                    continue;
-                }
+            MEPlacementToolMod.instance.placementJobs.submit(player, new PlacementJob(placePositions) {
+                @Override
+                protected StepResult place(BlockPos pos) {
+                    if (!chunks.checkNow(pos)) return StepResult.SKIPPED;
+                    BlockPos placePos = pos.immutable();
+                    var currentKey = (appeng.api.stacks.AEItemKey) transaction.allocate();
+                    if (currentKey == null) {
+                        return StepResult.STOP;
+                    }
 
-                if (placePart(player, level, placePos, partSide, partItem, placeStack)) {
-                    placedCount++;
-                    placedSnapshots.add(new UndoHistory.PartPlacementSnapshot(placePos, partSide, currentKey));
-                    extractionMap.merge(currentKey, 1L, Long::sum);
+                    var placeStack = currentKey.toStack(1);
+                    if (placeStack.getItem() instanceof IPartItem<?> partItem
+                            && placePart(player, level, placePos, partSide, partItem, placeStack)) {
+                        placedSnapshots.add(new UndoHistory.PartPlacementSnapshot(placePos, partSide, currentKey));
+                        return StepResult.PLACED;
+                    }
+                    transaction.release(currentKey);
+                    return StepResult.SKIPPED;
                 }
-            }
-
-            if (placedCount == 0) {
-                player.displayClientMessage(Component.translatable("message.meplacementtool.cannot_place"), true);
-                return InteractionResult.sidedSuccess(false);
-            }
-
-            long totalExtracted = 0;
-            for (var entry : extractionMap.entrySet()) {
-                long extracted = storage.extract(entry.getKey(), entry.getValue(), appeng.api.config.Actionable.MODULATE, src);
-                totalExtracted += extracted;
-            }
 
-            if (totalExtracted <= 0) {
-                player.displayClientMessage(Component.translatable("message.meplacementtool.cannot_place"), true);
-                return InteractionResult.sidedSuccess(false);
-            }
+                @Override
+                protected void complete(boolean cancelled) {
+                    int placedCount = getPlacedCount();
+                    // Return the parts and power that weren't used
+                    transaction.commit(placedCount);
+                    if (placedCount == 0) {
+                        player.displayClientMessage(Component.translatable("message.meplacementtool.cannot_place"), true);
+                        return;
+                    }
 
-            boolean configApplied = false;
-            if (MemoryCardHelper.hasConfiguredMemoryCard(player)) {
-                boolean firstPart = true;
-                for (UndoHistory.PlacementSnapshot snapshot : placedSnapshots) {
-                    var host = appeng.api.parts.PartHelper.getPartHost(level, snapshot.pos);
-                    if (host != null && MemoryCardHelper.applyMemoryCardToPart(player, host.getPart(partSide), firstPart, grid)) {
-                        configApplied = true;
+                    boolean configApplied = false;
+                    if (MemoryCardHelper.hasConfiguredMemoryCard(player)) {
+                        boolean firstPart = true;
+                        for (UndoHistory.PlacementSnapshot snapshot : placedSnapshots) {
+                            var host = appeng.api.parts.PartHelper.getPartHost(level, snapshot.pos);
+                            if (host != null && MemoryCardHelper.applyMemoryCardToPart(player, host.getPart(partSide), firstPart, grid)) {
+                                configApplied = true;
+                            }
+                            firstPart = false;
+                        }
                     }
-                    firstPart = false;
-                }
-            }
 
-            MEPlacementToolMod.instance.undoHistory.add(player, level, placedSnapshots, configApplied);
+                    MEPlacementToolMod.instance.undoHistory.add(player, level, placedSnapshots, configApplied);
 
-            LOGGER.debug("Consuming {} AE from wand for player {} (placedCount={})", ENERGY_COST * placedCount / placementCount, player.getName().getString(), placedCount);
-            this.usePower(player, ENERGY_COST * placedCount / placementCount, wand);
-            if (!placedSnapshots.isEmpty()) {
-                BlockPos soundPos = placedSnapshots.get(0).pos;
-                var placedState = level.getBlockState(soundPos);
-                var soundType = placedState.getSoundType(level, soundPos, player);
-                level.playSound(null, soundPos, soundType.getPlaceSound(), SoundSource.BLOCKS,
-                    (soundType.getVolume() + 1.0F) / 2.0F, soundType.getPitch() * 0.8F);
-            }
+                    BlockPos soundPos = placedSnapshots.get(0).pos;
+                    var placedState = level.getBlockState(soundPos);
+                    var soundType = placedState.getSoundType(level, soundPos, player);
+                    level.playSound(null, soundPos, soundType.getPlaceSound(), SoundSource.BLOCKS,
+                        (soundType.getVolume() + 1.0F) / 2.0F, soundType.getPitch() * 0.8F);
+                    reportSkipped(player, chunks);
+                }
+            });
 
             return InteractionResult.sidedSuccess(false);
         }
@@ -526,11 +332,20 @@ public class ItemMultiblockPlacementTool extends BasePlacementToolItem implement
         var clickedFace = context.getClickedFace();
         var clickedState = level.getBlockState(clickedPos);
 
+        LoadedChunks chunks = new LoadedChunks(level);
+        SectionBlockReader blocks = new SectionBlockReader(level);
+        // Keyed on the wand: it is the held item the placement context below sees
+        var replaceability = ReplaceabilityCache.forItem(wand.getItem());
         var placePositions = PlacementBfs.findPositions(
             clickedPos.relative(clickedFace), placementCount, clickedFace, directionMode,
-            candidate -> level.getBlockState(candidate.relative(clickedFace.getOpposite())).getBlock() == clickedState.getBlock(),
+            candidate -> blocks.getBlockState(candidate, clickedFace.getOpposite()).getBlock() == clickedState.getBlock(),
             candidate -> {
-                boolean canPlace = level.isEmptyBlock(candidate);
+                var stateAtPos = blocks.getBlockState(candidate);
+                var known = replaceability.classify(stateAtPos);
+                if (known != ReplaceabilityCache.Replaceability.CONTEXT) {
+                    return known == ReplaceabilityCache.Replaceability.ALWAYS;
+                }
+                boolean canPlace = stateAtPos.isAir();
                 if (!canPlace) {
                     try {
                         BlockPlaceContext checkContext = new BlockPlaceContext(new net.minecraft.world.item.context.UseOnContext(
@@ -538,15 +353,16 @@ public class ItemMultiblockPlacementTool extends BasePlacementToolItem implement
                                 context.getClickLocation(), context.getClickedFace(), candidate, context.isInside()
                             )
                         ));
-                        canPlace = level.getBlockState(candidate).canBeReplaced(checkContext);
+                        canPlace = stateAtPos.canBeReplaced(checkContext);
                     } catch (Exception ignored) {}
                 }
                 return canPlace;
-            }
+            },
+            chunks
         );
 
         if (placePositions.isEmpty()) {
-            player.displayClientMessage(Component.translatable("message.meplacementtool.cannot_place"), true);
+            player.displayClientMessage(nothingToPlace(chunks), true);
             return InteractionResult.sidedSuccess(false);
         }
 
@@ -563,119 +379,303 @@ public class ItemMultiblockPlacementTool extends BasePlacementToolItem implement
         // Check Mekanism configuration card (no resource requirements)
         boolean hasMekConfigCard = ModCompat.isMekanismLoaded() && MekanismConfigCardHelper.hasConfiguredConfigCard(player);
 
-        int placedCount = 0;
-        List<UndoHistory.PlacementSnapshot> placedSnapshots = new ArrayList<>();
-        
-        // Track which keys we've used and how many from each (for extraction later)
-        java.util.Map<appeng.api.stacks.AEItemKey, Long> extractionMap = new java.util.LinkedHashMap<>();
-        
-        // Create a mutable copy of matching keys with remaining counts
-        java.util.List<java.util.Map.Entry<appeng.api.stacks.AEItemKey, Long>> availableKeys = new java.util.ArrayList<>();
-        for (var entry : matchingKeys) {
-            availableKeys.add(new java.util.AbstractMap.SimpleEntry<>(entry.getKey(), entry.getValue()));
+        var transaction = reserveForPositions(storage, src, player, wand, matchingKeys, placePositions.size());
+        if (transaction == null) {
+            player.displayClientMessage(Component.translatable("message.meplacementtool.device_not_powered"), true);
+            return InteractionResult.FAIL;
         }
 
-        for (BlockPos placePos : placePositions) {
-            // Find a key with available count
-            appeng.api.stacks.AEItemKey currentKey = null;
-            for (var entry : availableKeys) {
-                if (entry.getValue() > 0) {
-                    currentKey = entry.getKey();
-                    entry.setValue(entry.getValue() - 1);
-                    break;
+        List<UndoHistory.PlacementSnapshot> placedSnapshots = new ArrayList<>();
+
+        var clickLocation = context.getClickLocation();
+        boolean clickInside = context.isInside();
+        // Simple blocks may skip per-block updates; see BulkBlockWriter
+        BulkBlockWriter bulkWriter = BulkBlockWriter.supports((BlockItem) blockItem)
+                ? new BulkBlockWriter((ServerLevel) level) : null;
+
+        // Large placements are spread over several ticks; refunds, cards and undo are settled on completion
+        MEPlacementToolMod.instance.placementJobs.submit(player, new PlacementJob(placePositions) {
+            // Written by the bulk writer and not yet flushed; recorded once their final state is known
+            private final List<BlockPos> bulkPositions = new ArrayList<>();
+            private final List<appeng.api.stacks.AEItemKey> bulkKeys = new ArrayList<>();
+            private final List<ItemStack> bulkStacks = new ArrayList<>();
+
+            private void flushBulk() {
+                if (bulkWriter == null || bulkWriter.isEmpty()) return;
+                bulkWriter.flush();
+                for (int i = 0; i < bulkPositions.size(); i++) {
+                    BlockPos bulkPos = bulkPositions.get(i);
+                    placedSnapshots.add(new UndoHistory.PlacementSnapshot(level.getBlockState(bulkPos), bulkPos,
+                            bulkStacks.get(i), bulkKeys.get(i), 1));
                 }
+                bulkPositions.clear();
+                bulkKeys.clear();
+                bulkStacks.clear();
             }
-            
-            if (currentKey == null) {
-                break;
+
+            @Override
+            protected void onYield() {
+                flushBulk();
             }
-            
-            var placeStack = currentKey.toStack(1);
-            ItemStack origMain = player.getMainHandItem();
-            ItemStack origOff = player.getOffhandItem();
-            try {
-                player.setItemInHand(InteractionHand.MAIN_HAND, placeStack);
-                // Create BlockPlaceContext with the correct placeStack (including NBT like energy)
-                BlockPlaceContext placeContext = new BlockPlaceContext(
-                    level, player, InteractionHand.MAIN_HAND, placeStack,
-                    new net.minecraft.world.phys.BlockHitResult(
-                        context.getClickLocation(), context.getClickedFace(),
-                        placePos, context.isInside()
-                    )
-                );
-                var result = ((BlockItem) blockItem).place(placeContext);
-                boolean consumes = result.consumesAction();
-                if (consumes) {
-                    placedCount++;
-                    placedSnapshots.add(new UndoHistory.PlacementSnapshot(level.getBlockState(placePos), placePos, placeStack, currentKey, 1));
-                    // Track extraction
-                    extractionMap.merge(currentKey, 1L, Long::sum);
+
+            @Override
+            protected StepResult place(BlockPos pos) {
+                // The chunk may have unloaded since the search; don't load it back
+                if (!chunks.checkNow(pos)) return StepResult.SKIPPED;
+                BlockPos placePos = pos.immutable();
+                // Take a reserved item, matching keys in the order they were found
+                var currentKey = (appeng.api.stacks.AEItemKey) transaction.allocate();
+                if (currentKey == null) {
+                    return StepResult.STOP;
                 }
-            } catch (Exception t) {
-                LOGGER.warn("Exception during placement attempt for player {} at {}", player.getName().getString(), placePos, t);
-            } finally {
-                player.setItemInHand(InteractionHand.MAIN_HAND, origMain);
-                player.setItemInHand(InteractionHand.OFF_HAND, origOff);
+                
+                var placeStack = currentKey.toStack(1);
+                // Placement logic may look at the held stack; the proxy holds it instead of the player
+                var proxy = PlacementProxy.of((ServerLevel) level, serverPlayer, placeStack);
+                try {
+                    // Create BlockPlaceContext with the correct placeStack (including NBT like energy)
+                    BlockPlaceContext placeContext = new BlockPlaceContext(
+                        level, proxy, InteractionHand.MAIN_HAND, placeStack,
+                        new net.minecraft.world.phys.BlockHitResult(
+                            clickLocation, clickedFace,
+                            placePos, clickInside
+                        )
+                    );
+                    if (bulkWriter != null && bulkWriter.place(placeContext, block, proxy, placeStack)) {
+                        bulkPositions.add(placePos);
+                        bulkKeys.add(currentKey);
+                        bulkStacks.add(placeStack);
+                        return StepResult.PLACED;
+                    }
+                    var result = ((BlockItem) blockItem).place(placeContext);
+                    if (result.consumesAction()) {
+                        placedSnapshots.add(new UndoHistory.PlacementSnapshot(level.getBlockState(placePos), placePos, placeStack, currentKey, 1));
+                        return StepResult.PLACED;
+                    }
+                } catch (Exception t) {
+                    LOGGER.warn("Exception during placement attempt for player {} at {}", player.getName().getString(), placePos, t);
+                } finally {
+                    proxy.release();
+                }
+                transaction.release(currentKey);
+                return StepResult.SKIPPED;
+            }
+
+            @Override
+            protected void complete(boolean cancelled) {
+                flushBulk();
+                int placedCount = getPlacedCount();
+                // Return the items and power that weren't used
+                transaction.commit(placedCount);
+                if (placedCount == 0) {
+                    player.displayClientMessage(Component.translatable("message.meplacementtool.cannot_place"), true);
+                    return;
+                }
+
+                // Apply memory card / config card settings from off-hand if present to all placed blocks
+                // Since all blocks are the same type, only show message once (for the first block)
+                boolean configApplied = false;
+                
+                // AE2 Memory Card
+                if (MemoryCardHelper.hasConfiguredMemoryCard(player)) {
+                    boolean firstBlock = true;
+                    for (UndoHistory.PlacementSnapshot snapshot : placedSnapshots) {
+                        if (MemoryCardHelper.applyMemoryCardToBlock(player, level, snapshot.pos, firstBlock, grid)) {
+                            configApplied = true;
+                        }
+                        firstBlock = false;
+                    }
+                }
+                // Mekanism Configuration Card
+                else if (hasMekConfigCard) {
+                    boolean firstBlock = true;
+                    for (UndoHistory.PlacementSnapshot snapshot : placedSnapshots) {
+                        if (MekanismConfigCardHelper.applyConfigCardToBlock(player, level, snapshot.pos, firstBlock)) {
+                            configApplied = true;
+                        }
+                        firstBlock = false;
+                    }
+                }
+
+                // Add to undo history, marking as non-undoable if config was applied
+                MEPlacementToolMod.instance.undoHistory.add(player, level, placedSnapshots, configApplied);
+
+                // Play the block's own placement sound (use first placed position)
+                BlockPos soundPos = placedSnapshots.get(0).pos;
+                var placedState = level.getBlockState(soundPos);
+                var soundType = placedState.getSoundType(level, soundPos, player);
+                level.playSound(null, soundPos, soundType.getPlaceSound(), SoundSource.BLOCKS, 
+                    (soundType.getVolume() + 1.0F) / 2.0F, soundType.getPitch() * 0.8F);
+                reportSkipped(player, chunks);
             }
+        });
+
+        return InteractionResult.sidedSuccess(false);
+    }
+
+    /**
+     * Place {@code fluid} from the network at up to {@code placementCount} positions found from the clicked
+     * face. Like blocks, the placement runs as a {@link PlacementJob}, so large placements are spread over
+     * several server ticks; the fluid and power are reserved up front and what isn't placed goes back.
+     */
+    private InteractionResult placeFluid(ServerPlayer player, Level level, ItemStack wand, UseOnContext context,
+            int placementCount, DirectionMode directionMode, appeng.api.storage.MEStorage storage,
+            appeng.api.networking.security.IActionSource src, appeng.api.stacks.AEFluidKey aeFluidKey,
+            net.minecraft.world.level.material.Fluid fluid) {
+        if (!(fluid instanceof net.minecraft.world.level.material.FlowingFluid flowingFluid)) {
+            player.displayClientMessage(Component.translatable("message.meplacementtool.unsupported_target"), true);
+            return InteractionResult.FAIL;
         }
 
-        if (placedCount == 0) {
-            player.displayClientMessage(Component.translatable("message.meplacementtool.cannot_place"), true);
+        var legacyBlock = fluid.defaultFluidState().createLegacyBlock();
+        BlockPos clickedPos = context.getClickedPos();
+        var clickedFace = context.getClickedFace();
+        var clickedState = level.getBlockState(clickedPos);
+
+        LoadedChunks chunks = new LoadedChunks(level);
+        SectionBlockReader blocks = new SectionBlockReader(level);
+        var replaceability = ReplaceabilityCache.forFluid(fluid);
+        var placePositions = PlacementBfs.findPositions(
+            clickedPos.relative(clickedFace), placementCount, clickedFace, directionMode,
+            candidate -> blocks.getBlockState(candidate, clickedFace.getOpposite()).getBlock() == clickedState.getBlock(),
+            candidate -> canPlaceFluidAt(blocks, candidate, fluid, aeFluidKey, legacyBlock, replaceability),
+            chunks
+        );
+        if (placePositions.isEmpty()) {
+            player.displayClientMessage(nothingToPlace(chunks), true);
             return InteractionResult.sidedSuccess(false);
         }
 
-        // Extract from each key we used
-        long totalExtracted = 0;
-        for (var entry : extractionMap.entrySet()) {
-            long extracted = storage.extract(entry.getKey(), entry.getValue(), appeng.api.config.Actionable.MODULATE, src);
-            totalExtracted += extracted;
+        // Take the fluid and power for every position up front; what isn't placed goes back
+        long totalFluidNeeded = (long) placePositions.size() * appeng.api.stacks.AEFluidKey.AMOUNT_BLOCK;
+        var transaction = new PlacementTransaction(storage, src, player);
+        if (transaction.reserve(aeFluidKey, totalFluidNeeded) < totalFluidNeeded) {
+            transaction.cancel();
+            player.displayClientMessage(Component.translatable("message.meplacementtool.network_missing", aeFluidKey.getDisplayName()), true);
+            return InteractionResult.FAIL;
         }
-        
-        if (totalExtracted <= 0) {
-            player.displayClientMessage(Component.translatable("message.meplacementtool.cannot_place"), true);
-            return InteractionResult.sidedSuccess(false);
+        if (!transaction.reserveEnergy(this, wand, Config.multiblockPlacementToolBaseEnergyCost, placePositions.size())) {
+            transaction.cancel();
+            player.displayClientMessage(Component.translatable("message.meplacementtool.device_not_powered"), true);
+            return InteractionResult.FAIL;
         }
 
-        // Apply memory card / config card settings from off-hand if present to all placed blocks
-        // Since all blocks are the same type, only show message once (for the first block)
-        boolean configApplied = false;
-        
-        // AE2 Memory Card
-        if (MemoryCardHelper.hasConfiguredMemoryCard(player)) {
-            boolean firstBlock = true;
-            for (UndoHistory.PlacementSnapshot snapshot : placedSnapshots) {
-                if (MemoryCardHelper.applyMemoryCardToBlock(player, level, snapshot.pos, firstBlock, grid)) {
-                    configApplied = true;
+        MEPlacementToolMod.instance.placementJobs.submit(player, new PlacementJob(placePositions) {
+            @Override
+            protected void onYield() {
+                blocks.reset();
+            }
+
+            @Override
+            protected StepResult place(BlockPos placePos) {
+                // The chunk may have unloaded, or the block changed, since the search
+                if (!chunks.checkNow(placePos)
+                        || !canPlaceFluidAt(blocks, placePos, fluid, aeFluidKey, legacyBlock, replaceability)) {
+                    return StepResult.SKIPPED;
                 }
-                firstBlock = false;
+                try {
+                    var stateAtPos = level.getBlockState(placePos);
+                    boolean canBeReplaced = false;
+                    try { canBeReplaced = stateAtPos.canBeReplaced(fluid); } catch (Exception ignored) {}
+                    boolean isLiquidContainer = stateAtPos.getBlock() instanceof net.minecraft.world.level.block.LiquidBlockContainer;
+
+                    boolean success;
+                    if (level.dimensionType().ultraWarm() && fluid.is(net.minecraft.tags.FluidTags.WATER)) {
+                        success = true; // Water evaporates but still counts
+                    } else if (isLiquidContainer && fluid == net.minecraft.world.level.material.Fluids.WATER) {
+                        ((net.minecraft.world.level.block.LiquidBlockContainer) stateAtPos.getBlock())
+                                .placeLiquid(level, placePos, stateAtPos, flowingFluid.getSource(false));
+                        success = true;
+                    } else {
+                        if (canBeReplaced && !stateAtPos.liquid()) {
+                            level.destroyBlock(placePos, true);
+                        }
+                        success = level.setBlock(placePos, legacyBlock, net.minecraft.world.level.block.Block.UPDATE_ALL_IMMEDIATE);
+                    }
+                    if (success) {
+                        transaction.allocate(appeng.api.stacks.AEFluidKey.AMOUNT_BLOCK);
+                        return StepResult.PLACED;
+                    }
+                } catch (Exception t) {
+                    LOGGER.warn("Exception during fluid placement at {}", placePos, t);
+                }
+                return StepResult.SKIPPED;
             }
-        }
-        // Mekanism Configuration Card
-        else if (hasMekConfigCard) {
-            boolean firstBlock = true;
-            for (UndoHistory.PlacementSnapshot snapshot : placedSnapshots) {
-                if (MekanismConfigCardHelper.applyConfigCardToBlock(player, level, snapshot.pos, firstBlock)) {
-                    configApplied = true;
+
+            @Override
+            protected void complete(boolean cancelled) {
+                int placedCount = getPlacedCount();
+                transaction.commit(placedCount);
+                if (placedCount > 0) {
+                    level.playSound(null, clickedPos.relative(clickedFace), SoundEvents.BUCKET_EMPTY, SoundSource.BLOCKS, 1.0F, 1.0F);
+                    reportSkipped(player, chunks);
+                } else {
+                    player.displayClientMessage(Component.translatable("message.meplacementtool.cannot_place"), true);
                 }
-                firstBlock = false;
             }
-        }
+        });
+        return InteractionResult.sidedSuccess(false);
+    }
 
-        // Add to undo history, marking as non-undoable if config was applied
-        MEPlacementToolMod.instance.undoHistory.add(player, level, placedSnapshots, configApplied);
+    /**
+     * Whether a fluid can be placed at {@code pos}; the block state decides, except for liquid containers.
+     */
+    private static boolean canPlaceFluidAt(SectionBlockReader blocks, BlockPos pos, net.minecraft.world.level.material.Fluid fluid,
+            appeng.api.stacks.AEFluidKey aeFluidKey, net.minecraft.world.level.block.state.BlockState legacyBlock,
+            ReplaceabilityCache replaceability) {
+        var stateAtPos = blocks.getBlockState(pos);
+        if (stateAtPos == legacyBlock || aeFluidKey.hasTag()) {
+            return false;
+        }
+        var known = replaceability.classify(stateAtPos);
+        if (known != ReplaceabilityCache.Replaceability.CONTEXT) {
+            return known == ReplaceabilityCache.Replaceability.ALWAYS;
+        }
+        try {
+            return ((net.minecraft.world.level.block.LiquidBlockContainer) stateAtPos.getBlock())
+                    .canPlaceLiquid(blocks.getLevel(), pos, stateAtPos, fluid);
+        } catch (Exception ignored) {
+            return false;
+        }
+    }
 
-        LOGGER.debug("Consuming {} AE from wand for player {} (placedCount={})", ENERGY_COST * placedCount / placementCount, player.getName().getString(), placedCount);
-        this.usePower(player, ENERGY_COST * placedCount / placementCount, wand);
-        // Play the block's own placement sound (use first placed position)
-        if (!placedSnapshots.isEmpty()) {
-            BlockPos soundPos = placedSnapshots.get(0).pos;
-            var placedState = level.getBlockState(soundPos);
-            var soundType = placedState.getSoundType(level, soundPos, player);
-            level.playSound(null, soundPos, soundType.getPlaceSound(), SoundSource.BLOCKS, 
-                (soundType.getVolume() + 1.0F) / 2.0F, soundType.getPitch() * 0.8F);
+    /**
+     * Take one item per position from the matching keys, in order, and the power for every position.
+     * Fewer items than positions may be reserved if the network changed since the availability check.
+     *
+     * @return null (holding nothing) if the wand lacks the power
+     */
+    @org.jetbrains.annotations.Nullable
+    private PlacementTransaction reserveForPositions(appeng.api.storage.MEStorage storage,
+            appeng.api.networking.security.IActionSource src, Player player, ItemStack wand,
+            List<java.util.Map.Entry<appeng.api.stacks.AEItemKey, Long>> matchingKeys, int positions) {
+        var transaction = new PlacementTransaction(storage, src, player);
+        for (var entry : matchingKeys) {
+            long missing = positions - transaction.getReserved();
+            if (missing <= 0) break;
+            transaction.reserve(entry.getKey(), Math.min(entry.getValue(), missing));
         }
+        if (!transaction.reserveEnergy(this, wand, Config.multiblockPlacementToolBaseEnergyCost, positions)) {
+            transaction.cancel();
+            return null;
+        }
+        return transaction;
+    }
 
-        return InteractionResult.sidedSuccess(false);
+    /**
+     * Feedback for a search that found nothing: the unloaded chunks, if the search ran into any.
+     */
+    private static Component nothingToPlace(LoadedChunks chunks) {
+        return chunks.getSkipped() > 0
+                ? Component.translatable("message.meplacementtool.skipped_unloaded", chunks.getSkipped())
+                : Component.translatable("message.meplacementtool.cannot_place");
+    }
+
+    private static void reportSkipped(Player player, LoadedChunks chunks) {
+        if (chunks.getSkipped() > 0) {
+            player.displayClientMessage(Component.translatable("message.meplacementtool.skipped_unloaded",
+                    chunks.getSkipped()), true);
+        }
     }
 
     private boolean canPlaceConfiguredPartOnCable(Player player, Level level, ItemStack partStack, BlockPos pos,
@@ -0,0 +1,80 @@
+package com.moakiee.meplacementtool;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import appeng.api.implementations.blockentities.IWirelessAccessPoint;
+
+/**
+ * Resolved wireless access points of tool links, keyed by the link tag stored on the tool, so repeated
+ * lookups skip decoding the {@link net.minecraft.core.GlobalPos} and finding the block entity.
+ * <p>
+ * Only weak references are kept. An entry is dropped once its access point is removed (broken or unloaded
+ * with its chunk) or stops ticking, and all entries of a level go when it unloads. The grid is always read
+ * from the access point, so a grid change needs no invalidation. Server thread only.
+ */
+@Mod.EventBusSubscriber(modid = MEPlacementToolMod.MODID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class LinkedGridCache {
+
+    // Bound on distinct links; hitting it just starts over
+    private static final int MAX_ENTRIES = 256;
+    private static final Map<Tag, Link> LINKS = new HashMap<>();
+
+    private record Link(WeakReference<ServerLevel> level, long chunkPos, WeakReference<IWirelessAccessPoint> accessPoint) {
+    }
+
+    private LinkedGridCache() {}
+
+    /**
+     * The access point cached for {@code link}, or null if it has to be resolved again.
+     */
+    @Nullable
+    public static IWirelessAccessPoint get(Tag link) {
+        Link cached = LINKS.get(link);
+        if (cached == null) return null;
+
+        ServerLevel level = cached.level.get();
+        IWirelessAccessPoint accessPoint = cached.accessPoint.get();
+        if (level == null || accessPoint == null
+                || (accessPoint instanceof BlockEntity be && be.isRemoved())
+                || !level.shouldTickBlocksAt(cached.chunkPos)) {
+            LINKS.remove(link);
+            return null;
+        }
+        return accessPoint;
+    }
+
+    public static void put(Tag link, ServerLevel level, BlockPos pos, IWirelessAccessPoint accessPoint) {
+        if (LINKS.size() >= MAX_ENTRIES) {
+            LINKS.clear();
+        }
+        // Copied, as the key must not change with the stack's tag
+        LINKS.put(link.copy(), new Link(new WeakReference<>(level), ChunkPos.asLong(pos), new WeakReference<>(accessPoint)));
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        LINKS.values().removeIf(link -> {
+            ServerLevel level = link.level.get();
+            return level == null || level == event.getLevel();
+        });
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        LINKS.clear();
+    }
+}
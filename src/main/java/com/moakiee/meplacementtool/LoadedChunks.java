@@ -0,0 +1,86 @@
+package com.moakiee.meplacementtool;
+
+import it.unimi.dsi.fastutil.longs.Long2BooleanOpenHashMap;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+
+/**
+ * Loaded-chunk test for one placement pass, so planners can stop at unloaded chunks instead of reading
+ * blocks there (which loads the chunk synchronously on the server thread). Results are memoised per chunk,
+ * and positions that were turned away are counted for player feedback. Server thread only.
+ */
+public final class LoadedChunks {
+
+    private final Level level;
+    private final Long2BooleanOpenHashMap loaded = new Long2BooleanOpenHashMap();
+    // Most lookups hit the same chunk as the one before
+    private long lastChunk = Long.MIN_VALUE;
+    private boolean lastLoaded;
+    private int skipped;
+
+    public LoadedChunks(Level level) {
+        this.level = level;
+    }
+
+    private boolean isChunkLoaded(int blockX, int blockZ) {
+        int chunkX = SectionPos.blockToSectionCoord(blockX);
+        int chunkZ = SectionPos.blockToSectionCoord(blockZ);
+        long key = ChunkPos.asLong(chunkX, chunkZ);
+        if (key != lastChunk) {
+            lastChunk = key;
+            lastLoaded = loaded.computeIfAbsent(key, k -> level.hasChunk(chunkX, chunkZ));
+        }
+        return lastLoaded;
+    }
+
+    /**
+     * Whether {@code pos} is in a loaded chunk; counts it as skipped if not.
+     */
+    public boolean check(BlockPos pos) {
+        if (isChunkLoaded(pos.getX(), pos.getZ())) return true;
+        skipped++;
+        return false;
+    }
+
+    /**
+     * Whether {@code pos} is in a loaded chunk, without counting it as skipped; for blocks that are only read
+     * next to a position.
+     */
+    public boolean isLoaded(BlockPos pos) {
+        return isChunkLoaded(pos.getX(), pos.getZ());
+    }
+
+    /**
+     * As {@link #check}, but asks the level again instead of using the memo; for steps of a job that runs
+     * over several ticks, during which chunks may unload.
+     */
+    public boolean checkNow(BlockPos pos) {
+        if (level.hasChunkAt(pos)) return true;
+        skipped++;
+        return false;
+    }
+
+    /**
+     * Whether {@code pos} and its horizontal neighbours are all in loaded chunks, for checks that also read
+     * the blocks next to a position (supports, neighbouring parts); counts it as skipped if not.
+     */
+    public boolean checkAround(BlockPos pos) {
+        int x = pos.getX(), z = pos.getZ();
+        if (isChunkLoaded(x - 1, z - 1) && isChunkLoaded(x + 1, z - 1)
+                && isChunkLoaded(x - 1, z + 1) && isChunkLoaded(x + 1, z + 1)) {
+            return true;
+        }
+        skipped++;
+        return false;
+    }
+
+    /**
+     * Number of positions turned away so far.
+     */
+    public int getSkipped() {
+        return skipped;
+    }
+}
@@ -100,11 +100,13 @@ public class MEPlacementToolMod
     public static MEPlacementToolMod instance;
     public MultiblockPreviewRenderer multiblockPreviewRenderer;
     public UndoHistory undoHistory;
+    public PlacementJobScheduler placementJobs;
 
     public MEPlacementToolMod()
     {
         instance = this;
         undoHistory = new UndoHistory();
+        placementJobs = new PlacementJobScheduler();
         IEventBus modEventBus = FMLJavaModLoadingContext.get().getModEventBus();
         
         // register our menus
@@ -121,6 +123,7 @@ public class MEPlacementToolMod
 
         MinecraftForge.EVENT_BUS.register(this);
         MinecraftForge.EVENT_BUS.register(undoHistory);
+        MinecraftForge.EVENT_BUS.register(placementJobs);
 
 
 
@@ -180,6 +183,8 @@ public class MEPlacementToolMod
             MEPartPreviewRenderer.install();
             // Install Cable Placement Tool preview renderer
             com.moakiee.meplacementtool.client.CablePreviewRenderer.install();
+            // Revision counter used to invalidate cached previews
+            com.moakiee.meplacementtool.client.ClientWorldRevision.install();
         }
     }
 
@@ -0,0 +1,179 @@
+package com.moakiee.meplacementtool;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+import net.minecraft.Util;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+
+/**
+ * Checks the block states at a large set of positions on the background worker pool.
+ * <p>
+ * The chunk sections covering the positions are copied on the calling (server) thread first, so the workers
+ * only read private copies. A check sees nothing but the block state and must be thread-safe; anything that
+ * needs the live world (a part host, a block entity) answers {@link Verdict#LIVE}, and the caller re-checks
+ * those positions itself. Positions in chunks that weren't loaded are always {@link Verdict#LIVE}.
+ */
+public final class ParallelValidator {
+
+    private static final int BATCH_SIZE = 4096;
+    private static final BlockState AIR = Blocks.AIR.defaultBlockState();
+    private static final BlockState VOID_AIR = Blocks.VOID_AIR.defaultBlockState();
+
+    public enum Verdict {
+        PASS, FAIL, LIVE
+    }
+
+    @FunctionalInterface
+    public interface StateCheck {
+        /**
+         * @param index index into the validated positions
+         */
+        Verdict check(int index, BlockState state);
+    }
+
+    /**
+     * @param passing indices of the positions that passed
+     * @param live    indices of the positions left for the caller to check, in ascending order
+     */
+    public record Result(int passed, int failed, BitSet passing, int[] live) {
+    }
+
+    private ParallelValidator() {
+    }
+
+    /**
+     * Whether a check over {@code size} positions is worth spreading over the worker pool.
+     */
+    public static boolean shouldUse(long size) {
+        return Config.parallelValidationMinPositions > 0 && size >= Config.parallelValidationMinPositions;
+    }
+
+    /**
+     * Check the state at every packed position in {@code positions}. Blocks the calling thread until done.
+     */
+    public static Result validate(Level level, long[] positions, StateCheck check) {
+        Sections sections = Sections.capture(level, positions);
+
+        List<CompletableFuture<Batch>> futures = new ArrayList<>();
+        for (int from = 0; from < positions.length; from += BATCH_SIZE) {
+            int start = from;
+            int end = Math.min(positions.length, from + BATCH_SIZE);
+            futures.add(CompletableFuture.supplyAsync(() -> runBatch(sections, positions, start, end, check),
+                    Util.backgroundExecutor()));
+        }
+
+        int passed = 0, failed = 0;
+        BitSet passing = new BitSet(positions.length);
+        IntArrayList live = new IntArrayList();
+        for (CompletableFuture<Batch> future : futures) {
+            Batch batch = future.join();
+            passed += batch.passed;
+            failed += batch.failed;
+            passing.or(batch.passing);
+            live.addAll(batch.live);
+        }
+        return new Result(passed, failed, passing, live.toIntArray());
+    }
+
+    private static Batch runBatch(Sections sections, long[] positions, int start, int end, StateCheck check) {
+        Batch batch = new Batch();
+        for (int i = start; i < end; i++) {
+            long pos = positions[i];
+            BlockState state = sections.getBlockState(BlockPos.getX(pos), BlockPos.getY(pos), BlockPos.getZ(pos));
+            Verdict verdict;
+            if (state == null) {
+                verdict = Verdict.LIVE;
+            } else {
+                try {
+                    verdict = check.check(i, state);
+                } catch (Exception e) {
+                    verdict = Verdict.LIVE;
+                }
+            }
+            switch (verdict) {
+                case PASS -> {
+                    batch.passed++;
+                    batch.passing.set(i);
+                }
+                case FAIL -> batch.failed++;
+                case LIVE -> batch.live.add(i);
+            }
+        }
+        return batch;
+    }
+
+    private static final class Batch {
+        int passed;
+        int failed;
+        final BitSet passing = new BitSet();
+        final IntArrayList live = new IntArrayList();
+    }
+
+    /**
+     * Copies of the sections holding a set of positions; immutable once captured.
+     */
+    private static final class Sections {
+        private final int minY;
+        private final int maxY;
+        // Null value: all air
+        private final Long2ObjectOpenHashMap<PalettedContainer<BlockState>> copies = new Long2ObjectOpenHashMap<>();
+        private final LongOpenHashSet unloaded = new LongOpenHashSet();
+
+        private Sections(Level level) {
+            this.minY = level.getMinBuildHeight();
+            this.maxY = level.getMaxBuildHeight();
+        }
+
+        static Sections capture(Level level, long[] positions) {
+            Sections sections = new Sections(level);
+            long lastKey = Long.MIN_VALUE;
+            for (long pos : positions) {
+                int y = BlockPos.getY(pos);
+                if (y < sections.minY || y >= sections.maxY) continue;
+                long key = SectionPos.blockToSection(pos);
+                if (key == lastKey) continue;
+                lastKey = key;
+                if (sections.copies.containsKey(key) || sections.unloaded.contains(key)) continue;
+
+                LevelChunk chunk = level.getChunkSource().getChunkNow(SectionPos.x(key), SectionPos.z(key));
+                if (chunk == null) {
+                    sections.unloaded.add(key);
+                    continue;
+                }
+                LevelChunkSection section = chunk.getSection(chunk.getSectionIndexFromSectionY(SectionPos.y(key)));
+                sections.copies.put(key, section.hasOnlyAir() ? null : section.getStates().copy());
+            }
+            return sections;
+        }
+
+        /**
+         * The captured state, or null if its chunk wasn't loaded.
+         */
+        BlockState getBlockState(int x, int y, int z) {
+            if (y < minY || y >= maxY) {
+                return VOID_AIR;
+            }
+            long key = SectionPos.asLong(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(y),
+                    SectionPos.blockToSectionCoord(z));
+            if (!copies.containsKey(key)) {
+                return null;
+            }
+            PalettedContainer<BlockState> states = copies.get(key);
+            return states == null ? AIR : states.get(x & 15, y & 15, z & 15);
+        }
+    }
+}
@@ -2,29 +2,40 @@ package com.moakiee.meplacementtool;
 
 import com.moakiee.meplacementtool.ItemMultiblockPlacementTool.DirectionMode;
 
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Deque;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Parameterized BFS algorithm for finding block placement positions.
  * Eliminates duplication of the BFS skeleton across tool items and preview renderers.
+ * <p>
+ * Positions are handled as {@link BlockPos#asLong} keys in primitive collections, so a search
+ * only allocates for the positions it returns.
  */
 public final class PlacementBfs {
 
     private PlacementBfs() {}
 
+    /**
+     * Checks if the supporting block matches. The candidate is a reused mutable position and must not be kept.
+     */
     @FunctionalInterface
     public interface SupportChecker {
         boolean matches(BlockPos candidate);
     }
 
+    /**
+     * Checks if a block/part can be placed. The candidate is a reused mutable position and must not be kept.
+     */
     @FunctionalInterface
     public interface CanPlaceChecker {
         boolean canPlace(BlockPos candidate);
@@ -48,31 +59,54 @@ public final class PlacementBfs {
             DirectionMode directionMode,
             SupportChecker supportChecker,
             CanPlaceChecker canPlaceChecker) {
+        return findPositions(startPoint, maxCount, face, directionMode, supportChecker, canPlaceChecker, null);
+    }
 
-        if (maxCount <= 0) return new ArrayList<>();
+    /**
+     * As {@link #findPositions(BlockPos, int, Direction, DirectionMode, SupportChecker, CanPlaceChecker)}, but
+     * the search doesn't enter positions next to unloaded chunks; those are counted in {@code chunks}.
+     * Server searches pass one, so the checkers never load a chunk.
+     */
+    public static List<BlockPos> findPositions(
+            BlockPos startPoint,
+            int maxCount,
+            Direction face,
+            DirectionMode directionMode,
+            SupportChecker supportChecker,
+            CanPlaceChecker canPlaceChecker,
+            @Nullable LoadedChunks chunks) {
 
-        Deque<BlockPos> candidates = new ArrayDeque<>();
-        Set<BlockPos> allCandidates = new HashSet<>();
-        List<BlockPos> placePositions = new ArrayList<>();
-        Set<BlockPos> acceptedPositions = new HashSet<>();
+        if (maxCount <= 0) return new ArrayList<>();
 
-        candidates.add(startPoint);
         final int MAX_CANDIDATES = maxCount * 10;
 
+        // Candidates may be queued more than once; duplicates are dropped when they are dequeued
+        LongArrayFIFOQueue candidates = new LongArrayFIFOQueue(Math.min(MAX_CANDIDATES, 1024));
+        LongOpenHashSet allCandidates = new LongOpenHashSet(Math.min(MAX_CANDIDATES, 4096));
+        LongOpenHashSet acceptedPositions = new LongOpenHashSet(Math.min(maxCount, 4096));
+        List<BlockPos> placePositions = new ArrayList<>(Math.min(maxCount, 1024));
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+
+        candidates.enqueue(startPoint.asLong());
+
         while (!candidates.isEmpty() && placePositions.size() < maxCount && allCandidates.size() < MAX_CANDIDATES) {
-            BlockPos current = candidates.removeFirst();
+            long current = candidates.dequeueLong();
             if (!allCandidates.add(current)) {
                 continue;
             }
 
-            boolean supportMatches = supportChecker.matches(current);
+            cursor.set(current);
+            if (chunks != null && !chunks.checkAround(cursor)) {
+                continue;
+            }
+            boolean supportMatches = supportChecker.matches(cursor);
             if (!supportMatches && directionMode != DirectionMode.AUTO
                     && !hasLockedModeSupport(current, acceptedPositions, directionMode)) {
                 continue;
             }
 
-            if (canPlaceChecker.canPlace(current)) {
-                placePositions.add(current);
+            if (canPlaceChecker.canPlace(cursor)) {
+                placePositions.add(BlockPos.of(current));
                 acceptedPositions.add(current);
                 addAdjacentPositions(candidates, current, face, directionMode);
             }
@@ -81,35 +115,38 @@ public final class PlacementBfs {
         return placePositions;
     }
 
-    public static boolean hasLockedModeSupport(BlockPos candidate, Set<BlockPos> acceptedPositions,
+    public static boolean hasLockedModeSupport(long candidate, LongSet acceptedPositions,
             DirectionMode directionMode) {
         switch (directionMode) {
             case NORTH_SOUTH:
-                return acceptedPositions.contains(candidate.north()) || acceptedPositions.contains(candidate.south());
+                return acceptedPositions.contains(BlockPos.offset(candidate, 0, 0, -1))
+                        || acceptedPositions.contains(BlockPos.offset(candidate, 0, 0, 1));
             case EAST_WEST:
-                return acceptedPositions.contains(candidate.east()) || acceptedPositions.contains(candidate.west());
+                return acceptedPositions.contains(BlockPos.offset(candidate, 1, 0, 0))
+                        || acceptedPositions.contains(BlockPos.offset(candidate, -1, 0, 0));
             case VERTICAL:
-                return acceptedPositions.contains(candidate.above()) || acceptedPositions.contains(candidate.below());
+                return acceptedPositions.contains(BlockPos.offset(candidate, 0, 1, 0))
+                        || acceptedPositions.contains(BlockPos.offset(candidate, 0, -1, 0));
             case AUTO:
             default:
                 return false;
         }
     }
 
-    public static void addAdjacentPositions(Deque<BlockPos> candidates, BlockPos pos,
+    public static void addAdjacentPositions(LongArrayFIFOQueue candidates, long pos,
             Direction face, DirectionMode directionMode) {
         switch (directionMode) {
             case NORTH_SOUTH:
-                candidates.add(pos.north());
-                candidates.add(pos.south());
+                enqueue(candidates, pos, 0, 0, -1);
+                enqueue(candidates, pos, 0, 0, 1);
                 break;
             case EAST_WEST:
-                candidates.add(pos.east());
-                candidates.add(pos.west());
+                enqueue(candidates, pos, 1, 0, 0);
+                enqueue(candidates, pos, -1, 0, 0);
                 break;
             case VERTICAL:
-                candidates.add(pos.above());
-                candidates.add(pos.below());
+                enqueue(candidates, pos, 0, 1, 0);
+                enqueue(candidates, pos, 0, -1, 0);
                 break;
             case AUTO:
             default:
@@ -118,41 +155,48 @@ public final class PlacementBfs {
         }
     }
 
-    public static void addAutoAdjacentPositions(Deque<BlockPos> candidates, BlockPos pos, Direction face) {
+    /**
+     * Queue the 8 neighbours of {@code pos} in the plane of the clicked face.
+     */
+    public static void addAutoAdjacentPositions(LongArrayFIFOQueue candidates, long pos, Direction face) {
         switch (face) {
             case DOWN:
             case UP:
-                candidates.add(pos.north());
-                candidates.add(pos.south());
-                candidates.add(pos.east());
-                candidates.add(pos.west());
-                candidates.add(pos.north().east());
-                candidates.add(pos.north().west());
-                candidates.add(pos.south().east());
-                candidates.add(pos.south().west());
+                enqueue(candidates, pos, 0, 0, -1);  // north
+                enqueue(candidates, pos, 0, 0, 1);   // south
+                enqueue(candidates, pos, 1, 0, 0);   // east
+                enqueue(candidates, pos, -1, 0, 0);  // west
+                enqueue(candidates, pos, 1, 0, -1);  // north-east
+                enqueue(candidates, pos, -1, 0, -1); // north-west
+                enqueue(candidates, pos, 1, 0, 1);   // south-east
+                enqueue(candidates, pos, -1, 0, 1);  // south-west
                 break;
             case NORTH:
             case SOUTH:
-                candidates.add(pos.above());
-                candidates.add(pos.below());
-                candidates.add(pos.east());
-                candidates.add(pos.west());
-                candidates.add(pos.above().east());
-                candidates.add(pos.above().west());
-                candidates.add(pos.below().east());
-                candidates.add(pos.below().west());
+                enqueue(candidates, pos, 0, 1, 0);   // above
+                enqueue(candidates, pos, 0, -1, 0);  // below
+                enqueue(candidates, pos, 1, 0, 0);   // east
+                enqueue(candidates, pos, -1, 0, 0);  // west
+                enqueue(candidates, pos, 1, 1, 0);   // above-east
+                enqueue(candidates, pos, -1, 1, 0);  // above-west
+                enqueue(candidates, pos, 1, -1, 0);  // below-east
+                enqueue(candidates, pos, -1, -1, 0); // below-west
                 break;
             case EAST:
             case WEST:
-                candidates.add(pos.above());
-                candidates.add(pos.below());
-                candidates.add(pos.north());
-                candidates.add(pos.south());
-                candidates.add(pos.above().north());
-                candidates.add(pos.above().south());
-                candidates.add(pos.below().north());
-                candidates.add(pos.below().south());
+                enqueue(candidates, pos, 0, 1, 0);   // above
+                enqueue(candidates, pos, 0, -1, 0);  // below
+                enqueue(candidates, pos, 0, 0, -1);  // north
+                enqueue(candidates, pos, 0, 0, 1);   // south
+                enqueue(candidates, pos, 0, 1, -1);  // above-north
+                enqueue(candidates, pos, 0, 1, 1);   // above-south
+                enqueue(candidates, pos, 0, -1, -1); // below-north
+                enqueue(candidates, pos, 0, -1, 1);  // below-south
                 break;
         }
     }
+
+    private static void enqueue(LongArrayFIFOQueue candidates, long pos, int dx, int dy, int dz) {
+        candidates.enqueue(BlockPos.offset(pos, dx, dy, dz));
+    }
 }
@@ -0,0 +1,126 @@
+package com.moakiee.meplacementtool;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+
+import com.mojang.logging.LogUtils;
+
+import net.minecraft.core.BlockPos;
+
+/**
+ * A resumable placement operation over a {@link PositionCursor}.
+ * The {@link PlacementJobScheduler} advances the cursor a slice at a time so that large
+ * placements are spread over several server ticks instead of stalling a single one.
+ */
+public abstract class PlacementJob {
+
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    public enum StepResult {
+        PLACED,
+        SKIPPED,
+        STOP
+    }
+
+    private final PositionCursor positions;
+    private final BlockPos.MutableBlockPos cursorPos = new BlockPos.MutableBlockPos();
+    private long processedCount;
+    private int placedCount;
+    private boolean finished;
+
+    protected PlacementJob(PositionCursor positions) {
+        this.positions = positions;
+    }
+
+    protected PlacementJob(List<BlockPos> positions) {
+        this(PositionCursor.of(positions));
+    }
+
+    /**
+     * Place at a single position. Called once per position, in cursor order.
+     * {@code pos} is reused between calls; use {@link BlockPos#immutable()} to keep it.
+     */
+    protected abstract StepResult place(BlockPos pos);
+
+    /**
+     * Called exactly once when the job runs out of positions, stops itself, or is cancelled.
+     * Cancelled jobs must still settle whatever was already placed (extraction, undo history).
+     */
+    protected abstract void complete(boolean cancelled);
+
+    /**
+     * Called when a slice ends with positions left, i.e. the job continues on a later tick.
+     */
+    protected void onYield() {
+    }
+
+    public int getPlacedCount() {
+        return placedCount;
+    }
+
+    public long getProcessedCount() {
+        return processedCount;
+    }
+
+    public long getTotalCount() {
+        return positions.size();
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Run as many steps as the budget allows.
+     * @return true if the job is finished and can be dropped from the queue
+     */
+    boolean run(PlacementJobScheduler.Budget budget) {
+        if (finished) return true;
+        while (processedCount < positions.size()) {
+            if (!budget.hasRoom()) {
+                try {
+                    onYield();
+                } catch (Exception e) {
+                    LOGGER.warn("Exception in placement job yield", e);
+                }
+                return false;
+            }
+            if (!positions.next(cursorPos)) {
+                break;
+            }
+            processedCount++;
+            BlockPos pos = cursorPos;
+            StepResult result;
+            try {
+                result = place(pos);
+            } catch (Exception e) {
+                LOGGER.warn("Exception during placement job step at {}", pos, e);
+                result = StepResult.SKIPPED;
+            }
+            if (result == StepResult.PLACED) {
+                placedCount++;
+                // Skipped cells are only bounded by the time budget, so sparse selections move quickly
+                budget.consume();
+            } else if (result == StepResult.STOP) {
+                break;
+            }
+        }
+        finish(false);
+        return true;
+    }
+
+    void cancel() {
+        finish(true);
+    }
+
+    private void finish(boolean cancelled) {
+        if (finished) return;
+        finished = true;
+        try {
+            complete(cancelled);
+        } catch (Exception e) {
+            LOGGER.error("Exception while completing placement job", e);
+        }
+    }
+}
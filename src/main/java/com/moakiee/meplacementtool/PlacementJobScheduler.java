@@ -0,0 +1,117 @@
+package com.moakiee.meplacementtool;
+
+import net.minecraft.world.entity.player.Player;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+
+import java.util.*;
+
+/**
+ * Runs {@link PlacementJob}s a slice at a time on the server thread.
+ * Each player has a FIFO queue and only the head job of a queue makes progress.
+ * All players share a per-tick block budget and a per-tick wall time budget; each slice gets a share of both.
+ */
+public class PlacementJobScheduler
+{
+    private final LinkedHashMap<UUID, ArrayDeque<PlacementJob>> queues = new LinkedHashMap<>();
+    private final Budget budget = new Budget();
+
+    /**
+     * Queue a job for the player. If nothing else is queued for them, the first slice runs
+     * immediately so that small placements still complete within the click.
+     */
+    public void submit(Player player, PlacementJob job) {
+        ArrayDeque<PlacementJob> queue = queues.computeIfAbsent(player.getUUID(), k -> new ArrayDeque<>());
+        queue.addLast(job);
+        if (queue.size() != 1) return;
+
+        // Draws on what is left of the current tick's budget
+        budget.startSlice(Integer.MAX_VALUE, 1);
+        if (job.run(budget)) {
+            queues.remove(player.getUUID());
+        }
+    }
+
+    /**
+     * @return true if the player still has placement work in progress
+     */
+    public boolean isBusy(Player player) {
+        return queues.containsKey(player.getUUID());
+    }
+
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase == TickEvent.Phase.START) {
+            budget.reset();
+            return;
+        }
+        if (queues.isEmpty()) return;
+
+        // Give every player with pending work a fair share of what is left of this tick's budget
+        int share = Math.max(1, budget.blocksLeft / queues.size());
+        int remaining = queues.size();
+        var iter = queues.values().iterator();
+        while (iter.hasNext() && budget.blocksLeft > 0) {
+            ArrayDeque<PlacementJob> queue = iter.next();
+            budget.startSlice(share, remaining--);
+            if (queue.peekFirst().run(budget)) {
+                queue.pollFirst();
+                if (queue.isEmpty()) {
+                    iter.remove();
+                }
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        ArrayDeque<PlacementJob> queue = queues.remove(event.getEntity().getUUID());
+        if (queue != null) {
+            queue.forEach(PlacementJob::cancel);
+        }
+    }
+
+    @SubscribeEvent
+    public void onServerStopping(ServerStoppingEvent event) {
+        for (ArrayDeque<PlacementJob> queue : queues.values()) {
+            queue.forEach(PlacementJob::cancel);
+        }
+        queues.clear();
+    }
+
+    /**
+     * Block count and time limits for the current tick. The time limit is set once per tick; slices only
+     * narrow it, so the jobs of all players together stay within {@link Config#placementJobTickBudgetMs}.
+     */
+    static final class Budget {
+        private int blocksLeft;
+        private long tickDeadline;
+        private int sliceLeft;
+        private long sliceDeadline;
+
+        void reset() {
+            blocksLeft = Config.placementJobBlocksPerTick;
+            tickDeadline = System.nanoTime() + (long) (Config.placementJobTickBudgetMs * 1_000_000L);
+        }
+
+        /**
+         * @param sharers slices still to run this tick, this one included, that split the time left evenly
+         */
+        void startSlice(int limit, int sharers) {
+            sliceLeft = Math.min(limit, blocksLeft);
+            long now = System.nanoTime();
+            sliceDeadline = now + Math.max(0L, tickDeadline - now) / Math.max(1, sharers);
+        }
+
+        boolean hasRoom() {
+            return sliceLeft > 0 && System.nanoTime() < sliceDeadline;
+        }
+
+        void consume() {
+            sliceLeft--;
+            blocksLeft--;
+        }
+    }
+}
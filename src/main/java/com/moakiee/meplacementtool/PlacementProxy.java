@@ -0,0 +1,96 @@
+package com.moakiee.meplacementtool;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.WeakHashMap;
+
+import net.minecraft.server.PlayerAdvancements;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.InteractionHand;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.common.util.FakePlayer;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+/**
+ * Stand-in that performs placements for a player, so the stack being placed can be put in a hand without
+ * touching the player's real inventory (and without the slot updates that would send to the client).
+ * <p>
+ * One proxy per player and level, reused across placements. It carries the player's own profile, so
+ * ownership recorded on placement (AE2 grid owners, for one) and operator permissions stay the player's,
+ * and it is synced with their position, rotation, pose, sneaking and abilities on every {@link #of} call.
+ * Advancement triggers go to the player. Server thread only.
+ * <p>
+ * Sharing the player's UUID is safe for UUID-keyed lookups: the proxy is never added to the player list or
+ * to a level, so {@code PlayerList#getPlayer} and {@code ServerLevel#getEntity} still resolve to the player.
+ */
+@Mod.EventBusSubscriber(modid = MEPlacementToolMod.MODID, bus = Mod.EventBusSubscriber.Bus.FORGE)
+public final class PlacementProxy extends FakePlayer {
+
+    private static final Map<ServerLevel, Map<UUID, PlacementProxy>> PROXIES = new WeakHashMap<>();
+
+    private ServerPlayer owner;
+
+    private PlacementProxy(ServerLevel level, ServerPlayer owner) {
+        super(level, owner.getGameProfile());
+        this.owner = owner;
+        // The ServerPlayer constructor bound the owner's advancement tracker (keyed by UUID) to this proxy
+        owner.getAdvancements().setPlayer(owner);
+    }
+
+    /**
+     * The proxy of {@code owner} in {@code level}, the level being placed in (which a queued placement may
+     * no longer share with its owner), synced with them and holding {@code stack} in the main hand.
+     * Call {@link #release()} when done.
+     */
+    public static PlacementProxy of(ServerLevel level, ServerPlayer owner, ItemStack stack) {
+        PlacementProxy proxy = PROXIES.computeIfAbsent(level, l -> new HashMap<>())
+                .computeIfAbsent(owner.getUUID(), uuid -> new PlacementProxy(level, owner));
+        // A player who respawned or relogged is a new entity with the same UUID
+        proxy.owner = owner;
+        proxy.sync();
+        proxy.setItemInHand(InteractionHand.MAIN_HAND, stack);
+        return proxy;
+    }
+
+    private void sync() {
+        moveTo(owner.getX(), owner.getY(), owner.getZ(), owner.getYRot(), owner.getXRot());
+        setYHeadRot(owner.getYHeadRot());
+        setPose(owner.getPose());
+        setShiftKeyDown(owner.isShiftKeyDown());
+        getAbilities().instabuild = owner.getAbilities().instabuild;
+        getAbilities().mayBuild = owner.getAbilities().mayBuild;
+    }
+
+    /**
+     * Empty the hands so the proxy doesn't keep the last placed stack alive.
+     */
+    public void release() {
+        setItemInHand(InteractionHand.MAIN_HAND, ItemStack.EMPTY);
+        setItemInHand(InteractionHand.OFF_HAND, ItemStack.EMPTY);
+    }
+
+    @Override
+    public PlayerAdvancements getAdvancements() {
+        // The player list keys advancements by UUID; looking them up for the proxy would rebind the owner's
+        return owner.getAdvancements();
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            PROXIES.remove(level);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        for (Map<UUID, PlacementProxy> proxies : PROXIES.values()) {
+            proxies.remove(event.getEntity().getUUID());
+        }
+    }
+}
@@ -37,6 +37,10 @@ public class PlacementToolMenuHost extends ItemMenuHost implements IPortableTerm
     private IStorageService sg;
     @Nullable
     private IWirelessAccessPoint myWap;
+    // Game time of the last search that found no active WAP
+    private long lastFailedSearch = Long.MIN_VALUE;
+    @Nullable
+    private ConfigManager configManager;
 
     public PlacementToolMenuHost(Player player, @Nullable Integer slot, ItemStack itemStack,
             BiConsumer<Player, ISubMenu> returnToMainMenu) {
@@ -74,12 +78,14 @@ public class PlacementToolMenuHost extends ItemMenuHost implements IPortableTerm
 
     @Override
     public IConfigManager getConfigManager() {
-        // Create a simple config manager for the placement tool
-        var configManager = new ConfigManager((manager, settingName) -> {
-            manager.writeToNBT(getItemStack().getOrCreateTag());
-        });
-        configManager.readFromNBT(getItemStack().getOrCreateTag().copy());
-        return configManager;
+        // Built once per menu; changes are written straight back to the tool
+        if (this.configManager == null) {
+            this.configManager = new ConfigManager((manager, settingName) -> {
+                manager.writeToNBT(getItemStack().getOrCreateTag());
+            });
+            this.configManager.readFromNBT(getItemStack().getOrCreateTag());
+        }
+        return this.configManager;
     }
 
     @Override
@@ -93,6 +99,17 @@ public class PlacementToolMenuHost extends ItemMenuHost implements IPortableTerm
 
     public boolean rangeCheck() {
         if (this.targetGrid != null) {
+            // Keep the last WAP while it still serves this grid; only search again once it doesn't
+            if (isUsable(this.myWap)) {
+                return true;
+            }
+            // At most one full search per tick while there is none
+            long now = getPlayer().level().getGameTime();
+            if (now == this.lastFailedSearch) {
+                this.myWap = null;
+                return false;
+            }
+
             // Find any active WAP, no range or dimension limit
             for (var wap : this.targetGrid.getMachines(WirelessAccessPointBlockEntity.class)) {
                 if (wap.isActive()) {
@@ -101,11 +118,19 @@ public class PlacementToolMenuHost extends ItemMenuHost implements IPortableTerm
                 }
             }
             this.myWap = null;
+            this.lastFailedSearch = now;
         }
 
         return false;
     }
 
+    private boolean isUsable(@Nullable IWirelessAccessPoint wap) {
+        return wap instanceof WirelessAccessPointBlockEntity be
+                && !be.isRemoved()
+                && be.isActive()
+                && be.getGrid() == this.targetGrid;
+    }
+
     @Override
     public boolean onBroadcastChanges(AbstractContainerMenu menu) {
         // For placement tools, we do not enforce wireless range checks or continuous
@@ -0,0 +1,194 @@
+package com.moakiee.meplacementtool;
+
+import org.slf4j.Logger;
+
+import com.mojang.logging.LogUtils;
+
+import it.unimi.dsi.fastutil.objects.Object2LongLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMaps;
+
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.ItemStack;
+
+import appeng.api.config.Actionable;
+import appeng.api.networking.security.IActionSource;
+import appeng.api.stacks.AEItemKey;
+import appeng.api.stacks.AEKey;
+import appeng.api.storage.MEStorage;
+import appeng.api.util.AEColor;
+
+/**
+ * Pays for a placement operation up front and settles it at the end.
+ * <p>
+ * {@link #reserve} extracts the items from the network immediately and {@link #reserveEnergy} takes the
+ * tool's power, so nothing is placed that isn't already paid for, however the network changes while a job
+ * runs over several ticks. Placements take their items with {@link #allocate} and give back what they
+ * didn't use with {@link #release}; {@link #commit()} returns every unused item to the network (or, if it
+ * won't take them, to the player) and the unused power to the tool.
+ */
+public final class PlacementTransaction {
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private final MEStorage storage;
+    private final IActionSource src;
+    private final Player player;
+    // Reserved keys in the order they are handed out, with the amount still free to allocate
+    private final Object2LongLinkedOpenHashMap<AEKey> remaining = new Object2LongLinkedOpenHashMap<>();
+    private long reserved;
+    private long allocated;
+    private BasePlacementToolItem tool;
+    private ItemStack toolStack = ItemStack.EMPTY;
+    private double energyPerPlacement;
+    private double energyReserved;
+    private boolean committed;
+
+    public PlacementTransaction(MEStorage storage, IActionSource src, Player player) {
+        this.storage = storage;
+        this.src = src;
+        this.player = player;
+    }
+
+    /**
+     * Reserve the cables for a Cable Placement Tool operation: up to {@code needed} cables of {@code cableType},
+     * {@code preferredColor} first, then the other colours.
+     */
+    public static PlacementTransaction forCables(MEStorage storage, IActionSource src, Player player,
+            ItemMECablePlacementTool.CableType cableType, AEColor preferredColor, long needed) {
+        PlacementTransaction transaction = new PlacementTransaction(storage, src, player);
+        AEItemKey preferredKey = AEItemKey.of(cableType.getStack(preferredColor));
+        if (preferredKey != null) {
+            transaction.reserve(preferredKey, needed);
+        }
+        for (var entry : cableType.getColorLookup().entrySet()) {
+            if (transaction.getReserved() >= needed) break;
+            if (entry.getValue() == preferredColor) continue;
+            transaction.reserve(entry.getKey(), needed - transaction.getReserved());
+        }
+        return transaction;
+    }
+
+    /**
+     * Extract up to {@code amount} of {@code key} now.
+     *
+     * @return the amount reserved
+     */
+    public long reserve(AEKey key, long amount) {
+        if (amount <= 0) return 0;
+        long extracted = storage.extract(key, amount, Actionable.MODULATE, src);
+        if (extracted > 0) {
+            remaining.addTo(key, extracted);
+            reserved += extracted;
+        }
+        return extracted;
+    }
+
+    /**
+     * Total amount reserved by {@link #reserve}, over all keys.
+     */
+    public long getReserved() {
+        return reserved;
+    }
+
+    /**
+     * Take the power for {@code placements} placements from the tool now. Placements are charged as they
+     * are allocated; the rest goes back on {@link #commit()}.
+     *
+     * @return false (taking nothing) if the tool doesn't hold enough
+     */
+    public boolean reserveEnergy(BasePlacementToolItem tool, ItemStack toolStack, double perPlacement, long placements) {
+        double amount = perPlacement * placements;
+        if (!tool.hasPower(player, amount, toolStack)) return false;
+        this.tool = tool;
+        this.toolStack = toolStack;
+        this.energyPerPlacement = perPlacement;
+        this.energyReserved = tool.extractAEPower(toolStack, amount, Actionable.MODULATE);
+        return true;
+    }
+
+    /**
+     * Hand out one item, or null if the reservation is used up.
+     */
+    public AEKey allocate() {
+        return allocate(1);
+    }
+
+    /**
+     * Hand out {@code amount} of a single key, or null if no key has that much left.
+     */
+    public AEKey allocate(long amount) {
+        for (var entry : Object2LongMaps.fastIterable(remaining)) {
+            if (entry.getLongValue() >= amount) {
+                entry.setValue(entry.getLongValue() - amount);
+                allocated += amount;
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Give back items from {@link #allocate} that ended up not being placed.
+     */
+    public void release(AEKey key, long amount) {
+        remaining.addTo(key, amount);
+        allocated -= amount;
+    }
+
+    public void release(AEKey key) {
+        release(key, 1);
+    }
+
+    /**
+     * Number of placements paid for so far: allocated items, counted per allocation of one.
+     */
+    public long getAllocated() {
+        return allocated;
+    }
+
+    /**
+     * Refund everything reserved but not allocated. Safe to call more than once.
+     *
+     * @param placements placements actually made, which keep their share of the reserved power
+     */
+    public void commit(long placements) {
+        if (committed) return;
+        committed = true;
+
+        for (var entry : Object2LongMaps.fastIterable(remaining)) {
+            long amount = entry.getLongValue();
+            if (amount <= 0) continue;
+            long inserted = storage.insert(entry.getKey(), amount, Actionable.MODULATE, src);
+            if (inserted < amount) {
+                refundToPlayer(entry.getKey(), amount - inserted);
+            }
+        }
+        remaining.clear();
+
+        if (tool != null) {
+            double unused = energyReserved - energyPerPlacement * placements;
+            if (unused > 0) {
+                tool.injectAEPower(toolStack, unused, Actionable.MODULATE);
+            }
+        }
+    }
+
+    /**
+     * Refund everything reserved, as nothing was placed.
+     */
+    public void cancel() {
+        commit(0);
+    }
+
+    private void refundToPlayer(AEKey key, long amount) {
+        if (!(key instanceof AEItemKey itemKey)) {
+            LOGGER.warn("Network refused {} x {} refunded from a placement; it is lost", amount, key);
+            return;
+        }
+        // Drops whatever doesn't fit in the inventory
+        while (amount > 0) {
+            int count = (int) Math.min(amount, itemKey.getMaxStackSize());
+            player.getInventory().placeItemBackInInventory(itemKey.toStack(count));
+            amount -= count;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.moakiee.meplacementtool;
+
+import java.util.List;
+
+import net.minecraft.core.BlockPos;
+
+/**
+ * A lazy, restartable sequence of block positions.
+ * Positions are written into a caller-supplied mutable position, so walking a cursor
+ * allocates nothing per cell. Callers that keep a position must call {@link BlockPos#immutable()}.
+ */
+public interface PositionCursor {
+
+    /**
+     * Write the next position into {@code out}.
+     * @return false once the cursor is exhausted ({@code out} is left untouched)
+     */
+    boolean next(BlockPos.MutableBlockPos out);
+
+    /**
+     * Total number of positions this cursor yields, saturated at {@link Long#MAX_VALUE}.
+     */
+    long size();
+
+    /**
+     * Rewind to the first position.
+     */
+    void reset();
+
+    static PositionCursor of(List<BlockPos> positions) {
+        return new PositionCursor() {
+            private int index;
+
+            @Override
+            public boolean next(BlockPos.MutableBlockPos out) {
+                if (index >= positions.size()) return false;
+                out.set(positions.get(index++));
+                return true;
+            }
+
+            @Override
+            public long size() {
+                return positions.size();
+            }
+
+            @Override
+            public void reset() {
+                index = 0;
+            }
+        };
+    }
+
+    /**
+     * Cursor over packed positions ({@link BlockPos#asLong()}).
+     */
+    static PositionCursor of(long[] positions) {
+        return new PositionCursor() {
+            private int index;
+
+            @Override
+            public boolean next(BlockPos.MutableBlockPos out) {
+                if (index >= positions.length) return false;
+                out.set(positions[index++]);
+                return true;
+            }
+
+            @Override
+            public long size() {
+                return positions.length;
+            }
+
+            @Override
+            public void reset() {
+                index = 0;
+            }
+        };
+    }
+}
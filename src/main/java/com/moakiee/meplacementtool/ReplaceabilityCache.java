@@ -0,0 +1,159 @@
+package com.moakiee.meplacementtool;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+
+import com.mojang.logging.LogUtils;
+
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.item.context.BlockPlaceContext;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.LiquidBlockContainer;
+import net.minecraft.world.level.block.state.BlockBehaviour;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.material.Fluid;
+
+/**
+ * Whether a block state can be placed over, worked out once per state and kept in an array indexed by block
+ * state id, so placement searches decide most cells with one lookup.
+ * <p>
+ * For an item, a block that keeps {@link BlockBehaviour}'s own {@code canBeReplaced(BlockState, BlockPlaceContext)}
+ * only looks at the state's replaceable flag and the held item, so its states are {@link Replaceability#ALWAYS}
+ * or {@link Replaceability#NEVER}; blocks that override it (slabs, snow layers, candles...) are
+ * {@link Replaceability#CONTEXT} and need the full check. For a fluid, states are decided by
+ * {@code canBeReplaced(BlockState, Fluid)}, except {@link LiquidBlockContainer}s that it rejects, which need
+ * {@code canPlaceLiquid} at the position. Safe to use from the server and render threads.
+ */
+public final class ReplaceabilityCache {
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    public enum Replaceability {
+        ALWAYS, NEVER, CONTEXT
+    }
+
+    private static final Replaceability[] VALUES = Replaceability.values();
+    private static final int MAX_CACHES = 64;
+    private static final Map<Object, ReplaceabilityCache> CACHES = new ConcurrentHashMap<>();
+
+    // Found by signature rather than by name, so this works in both development and production mappings
+    @Nullable
+    private static final Method CAN_BE_REPLACED = findBaseMethod(BlockState.class, BlockPlaceContext.class);
+    private static final ClassValue<Boolean> HAS_CONTEXT_CHECK = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return CAN_BE_REPLACED == null || overrides(type, CAN_BE_REPLACED);
+        }
+    };
+
+    @Nullable
+    private final Item item;
+    @Nullable
+    private final Fluid fluid;
+    // Per block state id: 0 until classified, then ordinal + 1
+    private final byte[] classes = new byte[Block.BLOCK_STATE_REGISTRY.size()];
+
+    private ReplaceabilityCache(@Nullable Item item, @Nullable Fluid fluid) {
+        this.item = item;
+        this.fluid = fluid;
+    }
+
+    /**
+     * Classification for placing with {@code heldItem} in hand, as seen by
+     * {@link BlockState#canBeReplaced(BlockPlaceContext)}.
+     */
+    public static ReplaceabilityCache forItem(Item heldItem) {
+        return get(heldItem, () -> new ReplaceabilityCache(heldItem, null));
+    }
+
+    /**
+     * Classification for placing {@code fluid}, covering the air, {@code canBeReplaced(Fluid)} and
+     * {@link LiquidBlockContainer} checks of fluid placement.
+     */
+    public static ReplaceabilityCache forFluid(Fluid fluid) {
+        return get(fluid, () -> new ReplaceabilityCache(null, fluid));
+    }
+
+    private static ReplaceabilityCache get(Object key, Supplier<ReplaceabilityCache> factory) {
+        ReplaceabilityCache cache = CACHES.get(key);
+        if (cache == null) {
+            if (CACHES.size() >= MAX_CACHES) {
+                CACHES.clear();
+            }
+            cache = CACHES.computeIfAbsent(key, k -> factory.get());
+        }
+        return cache;
+    }
+
+    public Replaceability classify(BlockState state) {
+        int id = Block.getId(state);
+        if (id < 0 || id >= classes.length) {
+            return Replaceability.CONTEXT;
+        }
+        byte known = classes[id];
+        if (known != 0) {
+            return VALUES[known - 1];
+        }
+        Replaceability computed = fluid != null ? classifyForFluid(state) : classifyForItem(state);
+        classes[id] = (byte) (computed.ordinal() + 1);
+        return computed;
+    }
+
+    private Replaceability classifyForItem(BlockState state) {
+        Block block = state.getBlock();
+        if (HAS_CONTEXT_CHECK.get(block.getClass())) {
+            return Replaceability.CONTEXT;
+        }
+        // BlockBehaviour's check: replaceable, and not the block's own item
+        boolean replaceable = state.canBeReplaced() && (item == Items.AIR || item != block.asItem());
+        return replaceable ? Replaceability.ALWAYS : Replaceability.NEVER;
+    }
+
+    private Replaceability classifyForFluid(BlockState state) {
+        if (state.isAir()) {
+            return Replaceability.ALWAYS;
+        }
+        try {
+            if (state.canBeReplaced(fluid)) {
+                return Replaceability.ALWAYS;
+            }
+        } catch (Exception ignored) {}
+        return state.getBlock() instanceof LiquidBlockContainer ? Replaceability.CONTEXT : Replaceability.NEVER;
+    }
+
+    @Nullable
+    private static Method findBaseMethod(Class<?>... parameterTypes) {
+        Method found = null;
+        for (Method method : BlockBehaviour.class.getDeclaredMethods()) {
+            if (method.getReturnType() == boolean.class
+                    && Arrays.equals(method.getParameterTypes(), parameterTypes)) {
+                if (found != null) {
+                    found = null;
+                    break;
+                }
+                found = method;
+            }
+        }
+        if (found == null) {
+            LOGGER.warn("Could not identify BlockBehaviour#canBeReplaced; every block will be checked in full");
+        }
+        return found;
+    }
+
+    private static boolean overrides(Class<?> type, Method base) {
+        for (Class<?> c = type; c != null && c != BlockBehaviour.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod(base.getName(), base.getParameterTypes());
+                return true;
+            } catch (NoSuchMethodException ignored) {
+            }
+        }
+        return false;
+    }
+}
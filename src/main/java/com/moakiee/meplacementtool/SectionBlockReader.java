@@ -0,0 +1,84 @@
+package com.moakiee.meplacementtool;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+/**
+ * Block state reads for one placement pass that keep the last chunk and chunk section, so neighbouring
+ * reads (a candidate and its support, a run of positions) go straight to the section's paletted container
+ * instead of through the chunk map each time.
+ * <p>
+ * Positions in chunks that aren't loaded are read through the level as before. The cached chunk may go
+ * stale once the server ticks on, so jobs that span ticks call {@link #reset()} when they yield.
+ * Server or render thread only, like the level it reads.
+ */
+public final class SectionBlockReader {
+    private static final BlockState AIR = Blocks.AIR.defaultBlockState();
+    private static final BlockState VOID_AIR = Blocks.VOID_AIR.defaultBlockState();
+
+    private final Level level;
+    private final BlockPos.MutableBlockPos neighbour = new BlockPos.MutableBlockPos();
+    private LevelChunk chunk;
+    private LevelChunkSection section;
+    private long lastSection = Long.MIN_VALUE;
+
+    public SectionBlockReader(Level level) {
+        this.level = level;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public BlockState getBlockState(BlockPos pos) {
+        return getBlockState(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    /**
+     * The state next to {@code pos} in {@code direction}, without allocating the neighbour position.
+     */
+    public BlockState getBlockState(BlockPos pos, Direction direction) {
+        return getBlockState(pos.getX() + direction.getStepX(), pos.getY() + direction.getStepY(),
+                pos.getZ() + direction.getStepZ());
+    }
+
+    public BlockState getBlockState(int x, int y, int z) {
+        if (level.isOutsideBuildHeight(y)) {
+            return VOID_AIR;
+        }
+        int sectionX = SectionPos.blockToSectionCoord(x);
+        int sectionY = SectionPos.blockToSectionCoord(y);
+        int sectionZ = SectionPos.blockToSectionCoord(z);
+        long key = SectionPos.asLong(sectionX, sectionY, sectionZ);
+        if (key != lastSection) {
+            if (chunk == null || chunk.getPos().x != sectionX || chunk.getPos().z != sectionZ) {
+                chunk = level.getChunkSource().getChunkNow(sectionX, sectionZ);
+                if (chunk == null) {
+                    lastSection = Long.MIN_VALUE;
+                    return level.getBlockState(neighbour.set(x, y, z));
+                }
+            }
+            section = chunk.getSection(chunk.getSectionIndexFromSectionY(sectionY));
+            lastSection = key;
+        }
+        if (section.hasOnlyAir()) {
+            return AIR;
+        }
+        return section.getBlockState(x & 15, y & 15, z & 15);
+    }
+
+    /**
+     * Drop the cached chunk and section.
+     */
+    public void reset() {
+        chunk = null;
+        section = null;
+        lastSection = Long.MIN_VALUE;
+    }
+}
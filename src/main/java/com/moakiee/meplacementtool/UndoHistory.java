@@ -2,42 +2,114 @@ package com.moakiee.meplacementtool;
 
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
-import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.core.SectionPos;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.nbt.Tag;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.sounds.SoundEvents;
 import net.minecraft.sounds.SoundSource;
 import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.BlockItem;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.storage.LevelResource;
 import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.server.ServerStartedEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
+import appeng.api.config.Actionable;
 import appeng.api.networking.IGrid;
 import appeng.api.parts.IPart;
 import appeng.api.parts.IPartHost;
+import appeng.api.parts.IPartItem;
 import appeng.api.parts.PartHelper;
 import appeng.api.stacks.AEItemKey;
 import appeng.api.stacks.AEKey;
-import appeng.api.stacks.GenericStack;
-import appeng.api.util.AEColor;
+import appeng.me.helpers.PlayerSource;
+import appeng.parts.PartPlacement;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import com.mojang.logging.LogUtils;
 
+import java.lang.ref.WeakReference;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Per-player undo/redo journal for the placement tools.
+ * <p>
+ * Placements are recorded as {@link PlacementSnapshot}s and compacted into a {@link HistoryEntry} when they
+ * are added: packed positions, a block state palette and an {@link AEKey} palette per entry, instead of one
+ * object per block. Each player keeps up to {@link Config#undoHistoryMaxEntries} entries, trimmed oldest first
+ * to stay within {@link Config#undoHistoryPlayerBudgetKb}; when all players together exceed
+ * {@link Config#undoHistoryGlobalBudgetKb}, the least recently active players are unloaded first.
+ * <p>
+ * Every change is also written to an {@link UndoJournal} per dimension, so history survives relogs and
+ * restarts: a player's entries for a dimension are read back in the background when they log in or enter it
+ * (or first use the history there), and go below whatever they recorded in the meantime.
+ * Undo and redo act on the newest entry in the player's current dimension.
+ * Entries only hold weak references to their level. Server thread only.
+ */
 public class UndoHistory
 {
+    private static final Logger LOGGER = LogUtils.getLogger();
     private final LinkedHashMap<UUID, PlayerEntry> history;
-    private static final int MAX_HISTORY_SIZE = 1;
     private static final int MAX_IDLE_PLAYER_ENTRIES = 100;
+    private long totalBytes;
+    @Nullable
+    private UndoJournal journal;
 
     public UndoHistory() {
         history = new LinkedHashMap<>(16, 0.75f, true);
     }
 
     /**
-     * Called when a player logs out to clean up their undo history.
+     * Called when a player logs out to unload their undo history; the journal keeps it for their return.
      */
     @SubscribeEvent
     public void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
-        history.remove(event.getEntity().getUUID());
+        removePlayer(event.getEntity());
+    }
+
+    @SubscribeEvent
+    public void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
+        Player player = event.getEntity();
+        ensureLoaded(player, getEntryFromPlayer(player), player.level());
+    }
+
+    @SubscribeEvent
+    public void onPlayerChangedDimension(PlayerEvent.PlayerChangedDimensionEvent event) {
+        Player player = event.getEntity();
+        ensureLoaded(player, getEntryFromPlayer(player), player.level());
+    }
+
+    @SubscribeEvent
+    public void onServerStarted(ServerStartedEvent event) {
+        journal = new UndoJournal(event.getServer().getWorldPath(LevelResource.ROOT)
+                .resolve("data").resolve(MEPlacementToolMod.MODID + "_undo"));
+    }
+
+    @SubscribeEvent
+    public void onServerStopped(ServerStoppedEvent event) {
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+        history.clear();
+        totalBytes = 0;
     }
 
     /**
@@ -47,15 +119,15 @@ public class UndoHistory
      */
     public void trimIfNeeded() {
         if (history.size() <= MAX_IDLE_PLAYER_ENTRIES) return;
-        var iter = history.keySet().iterator();
+        var iter = history.values().iterator();
         while (history.size() > MAX_IDLE_PLAYER_ENTRIES && iter.hasNext()) {
-            iter.next();
+            totalBytes -= iter.next().bytes;
             iter.remove();
         }
     }
 
     private PlayerEntry getEntryFromPlayer(Player player) {
-        return history.computeIfAbsent(player.getUUID(), k -> new PlayerEntry());
+        return history.computeIfAbsent(player.getUUID(), PlayerEntry::new);
     }
 
     public void add(Player player, Level world, List<PlacementSnapshot> placeSnapshots) {
@@ -63,10 +135,7 @@ public class UndoHistory
     }
 
     public void add(Player player, Level world, List<PlacementSnapshot> placeSnapshots, boolean memoryCardApplied) {
-        trimIfNeeded();
-        LinkedList<HistoryEntry> list = getEntryFromPlayer(player).entries;
-        list.clear();
-        list.add(new HistoryEntry(placeSnapshots, world, memoryCardApplied, false));
+        push(player, HistoryEntry.of(placeSnapshots, world, memoryCardApplied, false));
     }
 
     /**
@@ -74,19 +143,108 @@ public class UndoHistory
      * When undoing cable placements, we return transparent cables instead of the colored ones.
      */
     public void addCablePlacement(Player player, Level world, List<CablePlacementSnapshot> cableSnapshots) {
+        push(player, HistoryEntry.of(cableSnapshots, world, false, true));
+    }
+
+    private void push(Player player, HistoryEntry entry) {
+        if (entry.size() == 0) return;
         trimIfNeeded();
-        LinkedList<HistoryEntry> list = getEntryFromPlayer(player).entries;
-        list.clear();
-        // Convert CablePlacementSnapshot to PlacementSnapshot for storage
-        List<PlacementSnapshot> snapshots = new ArrayList<>();
-        for (CablePlacementSnapshot cableSnap : cableSnapshots) {
-            snapshots.add(cableSnap);
-        }
-        list.add(new HistoryEntry(snapshots, world, false, true));
+        PlayerEntry playerEntry = getEntryFromPlayer(player);
+        Level world = entry.world.get();
+        if (world != null) {
+            ensureLoaded(player, playerEntry, world);
+        }
+        // A new placement ends the redo chain of its dimension
+        var iter = playerEntry.redo.iterator();
+        while (iter.hasNext()) {
+            HistoryEntry undone = iter.next();
+            if (undone.dimension == entry.dimension) {
+                iter.remove();
+                playerEntry.drop(undone);
+            }
+        }
+        playerEntry.undo.addLast(entry);
+        playerEntry.account(entry);
+        log(playerEntry, entry, UndoJournal.ADD);
+        enforceBudgets(playerEntry);
+    }
+
+    /**
+     * Start reading the player's journaled entries for {@code world}'s dimension, once per dimension. They
+     * are merged on the server thread when the read completes; they are older than anything recorded since
+     * it was started, so they go below it.
+     */
+    private void ensureLoaded(Player player, PlayerEntry playerEntry, Level world) {
+        MinecraftServer server = world.getServer();
+        if (journal == null || server == null || !playerEntry.loaded.add(world.dimension())) return;
+
+        UndoJournal requestedFrom = journal;
+        ResourceKey<Level> dimension = world.dimension();
+        journal.load(dimension, player.getUUID()).thenAcceptAsync(records -> {
+            // Skip if the server stopped or the player's history was unloaded in the meantime
+            Level level = server.getLevel(dimension);
+            if (journal != requestedFrom || level == null || history.get(playerEntry.uuid) != playerEntry) return;
+            merge(playerEntry, records, level);
+        }, server);
+    }
+
+    private void merge(PlayerEntry playerEntry, List<UndoJournal.Record> records, Level world) {
+        // Anything in memory for this dimension was placed after the read started, which ended its redo chain
+        boolean placedSince = false;
+        for (HistoryEntry entry : playerEntry.undo) placedSince |= entry.dimension == world.dimension();
+        for (HistoryEntry entry : playerEntry.redo) placedSince |= entry.dimension == world.dimension();
+
+        for (int r = records.size() - 1; r >= 0; r--) {
+            UndoJournal.Record record = records.get(r);
+            if (placedSince && record.undone()) {
+                journal.append(world.dimension(), UndoJournal.DROP, record.id(), playerEntry.uuid, null);
+                continue;
+            }
+            HistoryEntry entry = HistoryEntry.fromTag(record.id(), record.entry(), world);
+            if (entry != null) {
+                playerEntry.account(entry);
+                (record.undone() ? playerEntry.redo : playerEntry.undo).addFirst(entry);
+            }
+        }
+        if (!records.isEmpty()) {
+            enforceBudgets(playerEntry);
+        }
+    }
+
+    private void log(PlayerEntry playerEntry, HistoryEntry entry, byte op) {
+        if (journal != null) {
+            journal.append(entry.dimension, op, entry.id, playerEntry.uuid, op == UndoJournal.ADD ? entry.toTag() : null);
+        }
+    }
+
+    private void enforceBudgets(PlayerEntry current) {
+        long playerBudget = Config.undoHistoryPlayerBudgetKb * 1024L;
+        while (current.undo.size() > 1
+                && (current.undo.size() > Config.undoHistoryMaxEntries || current.bytes > playerBudget)) {
+            current.drop(current.undo.removeFirst());
+        }
+
+        // Least recently active players first; the current player is the most recent one. Their entries
+        // stay in the journal and are read back when they next use the history.
+        long globalBudget = Config.undoHistoryGlobalBudgetKb * 1024L;
+        var iter = history.values().iterator();
+        while (totalBytes > globalBudget && iter.hasNext()) {
+            PlayerEntry playerEntry = iter.next();
+            if (playerEntry == current) continue;
+            totalBytes -= playerEntry.bytes;
+            iter.remove();
+        }
+        // Never drop the placement that was just added
+        while (totalBytes > globalBudget && (current.undo.size() > 1 || !current.redo.isEmpty())) {
+            current.evictOldest();
+        }
     }
 
     public void removePlayer(Player player) {
-        history.remove(player.getUUID());
+        PlayerEntry playerEntry = history.remove(player.getUUID());
+        if (playerEntry != null) {
+            totalBytes -= playerEntry.bytes;
+        }
     }
 
     /**
@@ -97,21 +255,27 @@ public class UndoHistory
         NO_HISTORY,
         OUT_OF_RANGE,
         MEMORY_CARD_APPLIED,
+        MISSING_ITEMS,
         FAILED
     }
 
     public UndoResult undoWithResult(Player player, Level world, BlockPos pos) {
         PlayerEntry playerEntry = getEntryFromPlayer(player);
-        LinkedList<HistoryEntry> historyEntries = playerEntry.entries;
-        if(historyEntries.isEmpty()) return UndoResult.NO_HISTORY;
-        HistoryEntry entry = historyEntries.getLast();
+        ensureLoaded(player, playerEntry, world);
+        HistoryEntry entry = newestIn(playerEntry.undo, world);
+        if(entry == null) return UndoResult.NO_HISTORY;
 
-        if(!entry.world.equals(world) || !entry.withinRange(pos)) return UndoResult.OUT_OF_RANGE;
+        if(!entry.withinRange(pos)) return UndoResult.OUT_OF_RANGE;
 
         if(entry.memoryCardApplied) return UndoResult.MEMORY_CARD_APPLIED;
 
-        if(entry.undo(player)) {
-            historyEntries.remove(entry);
+        // The entry stays undoable until its job has removed every record
+        if(entry.undo(player, world, () -> {
+            if(playerEntry.undo.removeLastOccurrence(entry)) {
+                playerEntry.redo.addLast(entry);
+                log(playerEntry, entry, UndoJournal.UNDO);
+            }
+        })) {
             return UndoResult.SUCCESS;
         }
         return UndoResult.FAILED;
@@ -121,98 +285,672 @@ public class UndoHistory
         return undoWithResult(player, world, pos) == UndoResult.SUCCESS;
     }
 
-    private static class PlayerEntry
+    /**
+     * Place the most recently undone entry again, taking the items from the network.
+     */
+    public UndoResult redoWithResult(Player player, Level world, BlockPos pos) {
+        PlayerEntry playerEntry = getEntryFromPlayer(player);
+        ensureLoaded(player, playerEntry, world);
+        HistoryEntry entry = newestIn(playerEntry.redo, world);
+        if(entry == null) return UndoResult.NO_HISTORY;
+
+        if(!entry.withinRange(pos)) return UndoResult.OUT_OF_RANGE;
+
+        UndoResult result = entry.redo(player, world);
+        if(result == UndoResult.SUCCESS) {
+            playerEntry.redo.removeLastOccurrence(entry);
+            playerEntry.undo.addLast(entry);
+            log(playerEntry, entry, UndoJournal.REDO);
+        }
+        return result;
+    }
+
+    @Nullable
+    private static HistoryEntry newestIn(ArrayDeque<HistoryEntry> stack, Level world) {
+        for (var iter = stack.descendingIterator(); iter.hasNext(); ) {
+            HistoryEntry entry = iter.next();
+            if (entry.world.get() == world) return entry;
+        }
+        return null;
+    }
+
+    private class PlayerEntry
     {
-        public final LinkedList<HistoryEntry> entries;
+        public final UUID uuid;
+        public final ArrayDeque<HistoryEntry> undo = new ArrayDeque<>();
+        public final ArrayDeque<HistoryEntry> redo = new ArrayDeque<>();
+        // Dimensions whose journaled entries have been read back
+        public final Set<ResourceKey<Level>> loaded = new HashSet<>();
+        public long bytes;
 
-        public PlayerEntry() {
-            entries = new LinkedList<>();
+        PlayerEntry(UUID uuid) {
+            this.uuid = uuid;
+        }
+
+        void account(HistoryEntry entry) {
+            bytes += entry.bytes;
+            totalBytes += entry.bytes;
+        }
+
+        /**
+         * Forget an entry that was already taken out of its stack, in memory and in the journal.
+         */
+        void drop(HistoryEntry entry) {
+            bytes -= entry.bytes;
+            totalBytes -= entry.bytes;
+            log(this, entry, UndoJournal.DROP);
+        }
+
+        /**
+         * Drop the entry furthest from the present: the oldest redo first, then the oldest undo.
+         */
+        void evictOldest() {
+            HistoryEntry entry = !redo.isEmpty() ? redo.removeFirst() : undo.pollFirst();
+            if (entry != null) drop(entry);
         }
     }
 
-    private static class HistoryEntry
+    /**
+     * One recorded placement, stored as parallel arrays indexed by record.
+     * Records are sorted by chunk section and then by packed position, so {@link #withinRange} can
+     * binary-search the few sections around the clicked block instead of scanning the entry.
+     */
+    private static final class HistoryEntry
     {
-        public final List<PlacementSnapshot> placeSnapshots;
-        public final Level world;
+        // Offsets with a squared length below 9 (the old closerThan(p, 3) check), nearest first
+        private static final int[][] RANGE_OFFSETS = rangeOffsets();
+
+        private static final byte TYPE_BLOCK = 0;
+        private static final byte TYPE_PART = 1;
+        private static final byte TYPE_CABLE = 2;
+        // Stored in data[] for parts placed in the centre of the host
+        private static final int CENTER_SIDE = 6;
+
+        // Identifies the entry in the journal
+        public final long id;
+        public final WeakReference<Level> world;
+        public final ResourceKey<Level> dimension;
         public final boolean memoryCardApplied;
         public final boolean isCablePlacement;
+        private final long[] positions;
+        private final byte[] types;
+        // TYPE_BLOCK: index into statePalette; otherwise the part side ordinal or CENTER_SIDE
+        private final int[] data;
+        // Index into keyPalette, or -1 if nothing goes back to the network
+        private final int[] keys;
+        // Null when every record is worth one item
+        private final long[] amounts;
+        private final BlockState[] statePalette;
+        private final AEKey[] keyPalette;
+        private final int minX, minY, minZ, maxX, maxY, maxZ;
+        // Distinct section keys in ascending order; records of sectionKeys[s] are sectionStarts[s]..sectionStarts[s+1]
+        private final long[] sectionKeys;
+        private final int[] sectionStarts;
+        public final long bytes;
 
-        public HistoryEntry(List<PlacementSnapshot> placeSnapshots, Level world, boolean memoryCardApplied, boolean isCablePlacement) {
-            this.placeSnapshots = placeSnapshots;
-            this.world = world;
+        private HistoryEntry(long id, Level world, boolean memoryCardApplied, boolean isCablePlacement, long[] positions,
+                byte[] types, int[] data, int[] keys, long[] amounts, BlockState[] statePalette, AEKey[] keyPalette) {
+            this.id = id;
+            this.world = new WeakReference<>(world);
+            this.dimension = world.dimension();
             this.memoryCardApplied = memoryCardApplied;
             this.isCablePlacement = isCablePlacement;
+            this.positions = positions;
+            this.types = types;
+            this.data = data;
+            this.keys = keys;
+            this.amounts = amounts;
+            this.statePalette = statePalette;
+            this.keyPalette = keyPalette;
+
+            int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+            int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+            LongArrayList sectionKeys = new LongArrayList();
+            IntArrayList sectionStarts = new IntArrayList();
+            for (int i = 0; i < positions.length; i++) {
+                long p = positions[i];
+                minX = Math.min(minX, BlockPos.getX(p));
+                minY = Math.min(minY, BlockPos.getY(p));
+                minZ = Math.min(minZ, BlockPos.getZ(p));
+                maxX = Math.max(maxX, BlockPos.getX(p));
+                maxY = Math.max(maxY, BlockPos.getY(p));
+                maxZ = Math.max(maxZ, BlockPos.getZ(p));
+                long section = SectionPos.blockToSection(p);
+                if (sectionKeys.isEmpty() || sectionKeys.getLong(sectionKeys.size() - 1) != section) {
+                    sectionKeys.add(section);
+                    sectionStarts.add(i);
+                }
+            }
+            sectionStarts.add(positions.length);
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.maxZ = maxZ;
+            this.sectionKeys = sectionKeys.toLongArray();
+            this.sectionStarts = sectionStarts.toIntArray();
+
+            // Rough retained size: array payloads plus a flat cost per palette entry and per object
+            this.bytes = 96L + positions.length * 17L + (amounts != null ? amounts.length * 8L : 0)
+                    + statePalette.length * 8L + keyPalette.length * 48L + this.sectionKeys.length * 12L;
         }
 
-        public Set<BlockPos> getBlockPositions() {
-            Set<BlockPos> positions = new HashSet<>();
-            for(PlacementSnapshot snapshot : placeSnapshots) {
-                positions.add(snapshot.pos);
+        static HistoryEntry of(List<? extends PlacementSnapshot> snapshots, Level world, boolean memoryCardApplied,
+                boolean isCablePlacement) {
+            int n = snapshots.size();
+            long[] positions = new long[n];
+            byte[] types = new byte[n];
+            int[] data = new int[n];
+            int[] keys = new int[n];
+            long[] amounts = null;
+            Object2IntOpenHashMap<BlockState> states = new Object2IntOpenHashMap<>();
+            Object2IntOpenHashMap<AEKey> keyIds = new Object2IntOpenHashMap<>();
+            List<BlockState> statePalette = new ArrayList<>();
+            List<AEKey> keyPalette = new ArrayList<>();
+
+            for (int i = 0; i < n; i++) {
+                PlacementSnapshot snapshot = snapshots.get(i);
+                positions[i] = snapshot.pos.asLong();
+                if (snapshot instanceof CablePlacementSnapshot) {
+                    types[i] = TYPE_CABLE;
+                    data[i] = CENTER_SIDE;
+                } else if (snapshot instanceof PartPlacementSnapshot part) {
+                    types[i] = TYPE_PART;
+                    data[i] = part.side != null ? part.side.ordinal() : CENTER_SIDE;
+                } else {
+                    types[i] = TYPE_BLOCK;
+                    data[i] = paletteIndex(states, statePalette, snapshot.blockState);
+                }
+
+                AEKey returnKey = snapshot.getReturnKey();
+                keys[i] = returnKey == null ? -1 : paletteIndex(keyIds, keyPalette, returnKey);
+                if (snapshot.amount != 1) {
+                    if (amounts == null) {
+                        amounts = new long[n];
+                        Arrays.fill(amounts, 0, i, 1);
+                    }
+                    amounts[i] = snapshot.amount;
+                } else if (amounts != null) {
+                    amounts[i] = 1;
+                }
+            }
+
+            // Section order for the range index; a stable sort keeps the placement order within a position
+            int[] order = new int[n];
+            for (int i = 0; i < n; i++) order[i] = i;
+            IntArrays.mergeSort(order, (a, b) -> {
+                int bySection = Long.compare(SectionPos.blockToSection(positions[a]), SectionPos.blockToSection(positions[b]));
+                return bySection != 0 ? bySection : Long.compare(positions[a], positions[b]);
+            });
+
+            long[] sortedPositions = new long[n];
+            byte[] sortedTypes = new byte[n];
+            int[] sortedData = new int[n];
+            int[] sortedKeys = new int[n];
+            long[] sortedAmounts = amounts != null ? new long[n] : null;
+            for (int i = 0; i < n; i++) {
+                int from = order[i];
+                sortedPositions[i] = positions[from];
+                sortedTypes[i] = types[from];
+                sortedData[i] = data[from];
+                sortedKeys[i] = keys[from];
+                if (sortedAmounts != null) sortedAmounts[i] = amounts[from];
             }
-            return positions;
+
+            return new HistoryEntry(ThreadLocalRandom.current().nextLong(), world, memoryCardApplied, isCablePlacement,
+                    sortedPositions, sortedTypes, sortedData, sortedKeys, sortedAmounts,
+                    statePalette.toArray(new BlockState[0]), keyPalette.toArray(new AEKey[0]));
         }
 
-        public boolean withinRange(BlockPos pos) {
-            Set<BlockPos> positions = getBlockPositions();
+        /**
+         * The journal form: the arrays as they are, plus the two palettes.
+         */
+        CompoundTag toTag() {
+            CompoundTag tag = new CompoundTag();
+            tag.putBoolean("MemoryCard", memoryCardApplied);
+            tag.putBoolean("Cable", isCablePlacement);
+            tag.putLongArray("Positions", positions);
+            tag.putByteArray("Types", types);
+            tag.putIntArray("Data", data);
+            tag.putIntArray("Keys", keys);
+            if (amounts != null) {
+                tag.putLongArray("Amounts", amounts);
+            }
+            ListTag states = new ListTag();
+            for (BlockState state : statePalette) {
+                states.add(NbtUtils.writeBlockState(state));
+            }
+            tag.put("States", states);
+            ListTag keyTags = new ListTag();
+            for (AEKey key : keyPalette) {
+                keyTags.add(key.toTagGeneric());
+            }
+            tag.put("AEKeys", keyTags);
+            return tag;
+        }
+
+        /**
+         * Read back a journaled entry. Records whose item no longer exists return nothing; returns null if
+         * the entry is malformed or one of its blocks no longer exists.
+         */
+        @Nullable
+        static HistoryEntry fromTag(long id, CompoundTag tag, Level world) {
+            long[] positions = tag.getLongArray("Positions");
+            byte[] types = tag.getByteArray("Types");
+            int[] data = tag.getIntArray("Data");
+            int[] keys = tag.getIntArray("Keys");
+            long[] amounts = tag.contains("Amounts", Tag.TAG_LONG_ARRAY) ? tag.getLongArray("Amounts") : null;
+            int n = positions.length;
+            if (n == 0 || types.length != n || data.length != n || keys.length != n
+                    || (amounts != null && amounts.length != n)) {
+                return null;
+            }
 
-            if(positions.contains(pos)) return true;
+            var blocks = world.holderLookup(Registries.BLOCK);
+            ListTag states = tag.getList("States", Tag.TAG_COMPOUND);
+            BlockState[] statePalette = new BlockState[states.size()];
+            for (int i = 0; i < statePalette.length; i++) {
+                statePalette[i] = NbtUtils.readBlockState(blocks, states.getCompound(i));
+                // Unknown blocks read as air, which undo would happily "remove"
+                if (statePalette[i].isAir()) return null;
+            }
 
-            for(BlockPos p : positions) {
-                if(pos.closerThan(p, 3)) return true;
+            ListTag keyTags = tag.getList("AEKeys", Tag.TAG_COMPOUND);
+            AEKey[] keyPalette = new AEKey[keyTags.size()];
+            for (int i = 0; i < keyPalette.length; i++) {
+                keyPalette[i] = AEKey.fromTagGeneric(keyTags.getCompound(i));
+            }
+
+            for (int i = 0; i < n; i++) {
+                if (types[i] == TYPE_BLOCK ? data[i] < 0 || data[i] >= statePalette.length
+                        : data[i] < 0 || data[i] > CENTER_SIDE) {
+                    return null;
+                }
+                if (keys[i] >= keyPalette.length) return null;
+                if (keys[i] >= 0 && keyPalette[keys[i]] == null) keys[i] = -1;
+            }
+            return new HistoryEntry(id, world, tag.getBoolean("MemoryCard"), tag.getBoolean("Cable"), positions,
+                    types, data, keys, amounts, statePalette, keyPalette);
+        }
+
+        private static int[][] rangeOffsets() {
+            List<int[]> offsets = new ArrayList<>();
+            for (int dx = -2; dx <= 2; dx++) {
+                for (int dy = -2; dy <= 2; dy++) {
+                    for (int dz = -2; dz <= 2; dz++) {
+                        if (dx * dx + dy * dy + dz * dz < 9) offsets.add(new int[] { dx, dy, dz });
+                    }
+                }
+            }
+            offsets.sort(Comparator.comparingInt(o -> o[0] * o[0] + o[1] * o[1] + o[2] * o[2]));
+            return offsets.toArray(new int[0][]);
+        }
+
+        private static <T> int paletteIndex(Object2IntMap<T> ids, List<T> palette, T value) {
+            int id = ids.getOrDefault(value, -1);
+            if (id < 0) {
+                id = palette.size();
+                palette.add(value);
+                ids.put(value, id);
+            }
+            return id;
+        }
+
+        public int size() {
+            return positions.length;
+        }
+
+        private long amount(int i) {
+            return amounts != null ? amounts[i] : 1;
+        }
+
+        @Nullable
+        private Direction side(int i) {
+            return data[i] == CENTER_SIDE ? null : Direction.from3DDataValue(data[i]);
+        }
+
+        /**
+         * Whether {@code pos} is one of the recorded positions or closer than 3 blocks to one.
+         * A bounding box test, then at most one binary search per offset in range; allocates nothing.
+         */
+        public boolean withinRange(BlockPos pos) {
+            int x = pos.getX(), y = pos.getY(), z = pos.getZ();
+            if (x < minX - 2 || x > maxX + 2 || y < minY - 2 || y > maxY + 2 || z < minZ - 2 || z > maxZ + 2) {
+                return false;
+            }
+
+            for (int[] offset : RANGE_OFFSETS) {
+                if (contains(x + offset[0], y + offset[1], z + offset[2])) {
+                    return true;
+                }
             }
             return false;
         }
 
-        public boolean undo(Player player) {
+        private boolean contains(int x, int y, int z) {
+            int section = Arrays.binarySearch(sectionKeys, SectionPos.asLong(
+                    SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(y), SectionPos.blockToSectionCoord(z)));
+            return section >= 0 && Arrays.binarySearch(positions, sectionStarts[section], sectionStarts[section + 1],
+                    BlockPos.asLong(x, y, z)) >= 0;
+        }
+
+        @Nullable
+        private IGrid getGrid(Player player, Level world) {
             ItemStack wand = player.getMainHandItem();
-            
+
             // Check if holding the correct tool
             boolean holdingMultiblockTool = wand.getItem() == MEPlacementToolMod.MULTIBLOCK_PLACEMENT_TOOL.get();
             boolean holdingCableTool = wand.getItem() == MEPlacementToolMod.ME_CABLE_PLACEMENT_TOOL.get();
-            
+
             if (isCablePlacement && !holdingCableTool) {
-                return false;
+                return null;
             }
             if (!isCablePlacement && !holdingMultiblockTool) {
-                return false;
+                return null;
             }
 
-            appeng.api.networking.IGrid grid = null;
             if(wand.getItem() instanceof BasePlacementToolItem placementTool) {
-                grid = placementTool.getLinkedGrid(wand, world, player);
+                return placementTool.getLinkedGrid(wand, world, player);
             }
+            return null;
+        }
 
+        /**
+         * Check that every record can be restored, then queue an {@link UndoJob}. Nothing is touched unless
+         * the whole entry can be undone.
+         *
+         * @param onUndone run once the job has removed the records
+         */
+        public boolean undo(Player player, Level world, Runnable onUndone) {
+            IGrid grid = getGrid(player, world);
             if(grid == null) {
                 return false;
             }
 
-            // Check all snapshots can be restored
-            for(PlacementSnapshot snapshot : placeSnapshots) {
-                if(!snapshot.canRestore(world, player)) return false;
+            // Check all records can be restored
+            if(!allRecords(world, (i, state) -> types[i] != TYPE_BLOCK
+                    ? ParallelValidator.Verdict.LIVE
+                    : verdict(state.equals(statePalette[data[i]])), this::canRestore)) {
+                return false;
             }
-            
-            // Perform undo
-            for(PlacementSnapshot snapshot : placeSnapshots) {
-                if(snapshot.restore(world, player)) {
-                    if(!player.isCreative()) {
-                        var storage = grid.getStorageService().getInventory();
-                        var src = new appeng.me.helpers.PlayerSource(player);
-                        
-                        // For cable placements, use the return key (transparent cable)
-                        AEKey returnKey = snapshot.getReturnKey();
-                        if(returnKey != null) {
-                            storage.insert(returnKey, snapshot.amount, appeng.api.config.Actionable.MODULATE, src);
+
+            MEPlacementToolMod.instance.placementJobs.submit(player, new UndoJob(player, world, grid, onUndone));
+            return true;
+        }
+
+        @FunctionalInterface
+        private interface RecordCheck {
+            boolean test(SectionBlockReader blocks, BlockPos pos, int i);
+        }
+
+        /**
+         * Whether {@code check} holds for every record. Large entries decide what they can from the block
+         * state alone ({@code stateCheck}) on the worker pool, and run {@code check} only for the rest.
+         */
+        private boolean allRecords(Level world, ParallelValidator.StateCheck stateCheck, RecordCheck check) {
+            BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+            SectionBlockReader blocks = new SectionBlockReader(world);
+            if(ParallelValidator.shouldUse(positions.length)) {
+                var result = ParallelValidator.validate(world, positions, stateCheck);
+                if(result.failed() > 0) return false;
+                for(int i : result.live()) {
+                    if(!check.test(blocks, pos.set(positions[i]), i)) return false;
+                }
+                return true;
+            }
+            for(int i = 0; i < positions.length; i++) {
+                if(!check.test(blocks, pos.set(positions[i]), i)) return false;
+            }
+            return true;
+        }
+
+        private static ParallelValidator.Verdict verdict(boolean pass) {
+            return pass ? ParallelValidator.Verdict.PASS : ParallelValidator.Verdict.FAIL;
+        }
+
+        private boolean canRestore(SectionBlockReader blocks, BlockPos pos, int i) {
+            if (types[i] == TYPE_BLOCK) {
+                return blocks.getBlockState(pos).equals(statePalette[data[i]]);
+            }
+            IPartHost host = PartHelper.getPartHost(blocks.getLevel(), pos);
+            return host != null && host.getPart(side(i)) != null;
+        }
+
+        private boolean removePart(Level world, BlockPos pos, int i) {
+            IPartHost host = PartHelper.getPartHost(world, pos);
+            Direction side = side(i);
+            if (host == null || host.getPart(side) == null) {
+                return false;
+            }
+
+            host.removePartFromSide(side);
+            host.markForUpdate();
+            if (host.isEmpty()) {
+                host.cleanup();
+            }
+            return true;
+        }
+
+        /**
+         * Removes the entry's records in section order, spread over ticks by the {@link PlacementJobScheduler}.
+         * <p>
+         * Blocks are removed without neighbour updates; records next to a position outside the entry notify
+         * their neighbours when a section is done, so updates don't cascade through the removed area.
+         * Returned items are added up and inserted once per key when the job completes. A cancelled job
+         * (logout, server stop) removes the rest of its records at once, so the entry is never half undone.
+         */
+        private final class UndoJob extends PlacementJob {
+            private final Player player;
+            private final Level world;
+            private final IGrid grid;
+            private final Runnable onUndone;
+            private final long[] returned = new long[keyPalette.length];
+            // Removed records on the edge of the entry, notified when their section is done
+            private final IntArrayList edge = new IntArrayList();
+            // Records that changed since the undo was checked and were left in place
+            private final IntArrayList skipped = new IntArrayList();
+            private long currentSection = Long.MIN_VALUE;
+
+            UndoJob(Player player, Level world, IGrid grid, Runnable onUndone) {
+                super(PositionCursor.of(positions));
+                this.player = player;
+                this.world = world;
+                this.grid = grid;
+                this.onUndone = onUndone;
+            }
+
+            @Override
+            protected StepResult place(BlockPos cursorPos) {
+                return remove(cursorPos.immutable(), (int) getProcessedCount() - 1);
+            }
+
+            private StepResult remove(BlockPos pos, int i) {
+                long section = SectionPos.blockToSection(positions[i]);
+                if (section != currentSection) {
+                    notifyEdge();
+                    currentSection = section;
+                }
+
+                if (types[i] == TYPE_BLOCK) {
+                    if (!world.getBlockState(pos).equals(statePalette[data[i]])
+                            || !world.setBlock(pos, world.getFluidState(pos).createLegacyBlock(),
+                                    Block.UPDATE_CLIENTS | Block.UPDATE_KNOWN_SHAPE)) {
+                        skipped.add(i);
+                        return StepResult.SKIPPED;
+                    }
+                    if (isOnEdge(pos)) {
+                        edge.add(i);
+                    }
+                } else if (!removePart(world, pos, i)) {
+                    return StepResult.SKIPPED;
+                }
+
+                if (keys[i] >= 0) {
+                    // For cable placements this is the transparent cable
+                    returned[keys[i]] += amount(i);
+                }
+                return StepResult.PLACED;
+            }
+
+            private boolean isOnEdge(BlockPos pos) {
+                for (Direction direction : Direction.values()) {
+                    if (!contains(pos.getX() + direction.getStepX(), pos.getY() + direction.getStepY(),
+                            pos.getZ() + direction.getStepZ())) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            private void notifyEdge() {
+                BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+                for (int k = 0; k < edge.size(); k++) {
+                    int i = edge.getInt(k);
+                    pos.set(positions[i]);
+                    world.blockUpdated(pos, statePalette[data[i]].getBlock());
+                    world.getBlockState(pos).updateNeighbourShapes(world, pos, Block.UPDATE_ALL);
+                }
+                edge.clear();
+            }
+
+            @Override
+            protected void onYield() {
+                notifyEdge();
+                player.displayClientMessage(Component.translatable("message.meplacementtool.undo_progress",
+                        getProcessedCount(), getTotalCount()), true);
+            }
+
+            @Override
+            protected void complete(boolean cancelled) {
+                if (cancelled) {
+                    for (int i = (int) getProcessedCount(); i < positions.length; i++) {
+                        try {
+                            remove(BlockPos.of(positions[i]), i);
+                        } catch (Exception e) {
+                            LOGGER.warn("Exception while finishing a cancelled undo at {}", BlockPos.of(positions[i]), e);
+                        }
+                    }
+                }
+                notifyEdge();
+                onUndone.run();
+                // Blocks left in place had neighbours removed silently; let them catch up
+                for (int k = 0; k < skipped.size(); k++) {
+                    BlockPos pos = BlockPos.of(positions[skipped.getInt(k)]);
+                    for (Direction direction : Direction.values()) {
+                        world.neighborChanged(pos, Blocks.AIR, pos.relative(direction));
+                    }
+                    BlockState state = world.getBlockState(pos);
+                    BlockState updated = Block.updateFromNeighbourShapes(state, world, pos);
+                    if (updated != state) {
+                        world.setBlock(pos, updated, Block.UPDATE_ALL);
+                    }
+                }
+
+                if (!player.isCreative()) {
+                    var storage = grid.getStorageService().getInventory();
+                    var src = new PlayerSource(player);
+                    for (int k = 0; k < keyPalette.length; k++) {
+                        if (returned[k] > 0) {
+                            storage.insert(keyPalette[k], returned[k], Actionable.MODULATE, src);
                         }
                     }
                 }
+
+                world.playSound(null, player.blockPosition(), SoundEvents.CHORUS_FRUIT_TELEPORT, SoundSource.PLAYERS, 1.0F, 1.0F);
+            }
+        }
+
+        public UndoResult redo(Player player, Level world) {
+            IGrid grid = getGrid(player, world);
+            if(grid == null) {
+                return UndoResult.FAILED;
+            }
+
+            if(!allRecords(world, (i, state) -> switch (types[i]) {
+                        case TYPE_BLOCK -> verdict(state.canBeReplaced());
+                        // Air, or possibly a cable bus without a centre cable
+                        case TYPE_CABLE -> state.isAir() ? ParallelValidator.Verdict.PASS
+                                : state.hasBlockEntity() ? ParallelValidator.Verdict.LIVE : ParallelValidator.Verdict.FAIL;
+                        default -> ParallelValidator.Verdict.LIVE;
+                    }, this::canReplace)) {
+                return UndoResult.FAILED;
+            }
+
+            var storage = grid.getStorageService().getInventory();
+            var src = new PlayerSource(player);
+            long[] needed = new long[keyPalette.length];
+            for(int i = 0; i < positions.length; i++) {
+                if(keys[i] >= 0) needed[keys[i]] += amount(i);
+            }
+            if(!player.isCreative()) {
+                for(int k = 0; k < keyPalette.length; k++) {
+                    // Keys of items that no longer exist are left null and unused
+                    if(needed[k] > 0 && storage.extract(keyPalette[k], needed[k], Actionable.SIMULATE, src) < needed[k]) {
+                        return UndoResult.MISSING_ITEMS;
+                    }
+                }
+            }
+
+            long[] used = new long[keyPalette.length];
+            for(int i = 0; i < positions.length; i++) {
+                BlockPos immutable = BlockPos.of(positions[i]);
+                ItemStack stack = keys[i] >= 0 && keyPalette[keys[i]] instanceof AEItemKey itemKey
+                        ? itemKey.toStack() : ItemStack.EMPTY;
+                if(replace(player, world, immutable, i, stack) && keys[i] >= 0) {
+                    used[keys[i]] += amount(i);
+                }
+            }
+
+            // One extract per item variant for everything that was placed again
+            if(!player.isCreative()) {
+                for(int k = 0; k < keyPalette.length; k++) {
+                    if(used[k] > 0) {
+                        storage.extract(keyPalette[k], used[k], Actionable.MODULATE, src);
+                    }
+                }
             }
 
             world.playSound(null, player.blockPosition(), SoundEvents.CHORUS_FRUIT_TELEPORT, SoundSource.PLAYERS, 1.0F, 1.0F);
+            return UndoResult.SUCCESS;
+        }
 
-            return true;
+        private boolean canReplace(SectionBlockReader blocks, BlockPos pos, int i) {
+            return switch (types[i]) {
+                case TYPE_BLOCK -> blocks.getBlockState(pos).canBeReplaced();
+                case TYPE_CABLE -> ItemMECablePlacementTool.canPlaceCableAt(blocks, pos);
+                default -> {
+                    IPartHost host = PartHelper.getPartHost(blocks.getLevel(), pos);
+                    yield host != null && host.getPart(null) != null && host.getPart(side(i)) == null;
+                }
+            };
+        }
+
+        private boolean replace(Player player, Level world, BlockPos pos, int i, ItemStack stack) {
+            if (types[i] == TYPE_BLOCK) {
+                BlockState state = statePalette[data[i]];
+                if (!world.setBlock(pos, state, Block.UPDATE_ALL)) return false;
+                if (!stack.isEmpty()) {
+                    BlockItem.updateCustomBlockEntityTag(world, player, pos, stack);
+                    state.getBlock().setPlacedBy(world, pos, state, player, stack);
+                }
+                return true;
+            }
+
+            if (!(stack.getItem() instanceof IPartItem<?> partItem)) return false;
+            try {
+                Direction side = types[i] == TYPE_CABLE ? Direction.UP : side(i);
+                return PartPlacement.placePart(player, world, (IPartItem) partItem, stack.getTag(), pos, side) != null;
+            } catch (Exception e) {
+                return false;
+            }
         }
     }
 
+    /**
+     * A single placement, as recorded by the tools while they place. {@link UndoHistory} keeps these only
+     * until the placement is added, then stores them compactly.
+     */
     public static class PlacementSnapshot
     {
         public final BlockState blockState;
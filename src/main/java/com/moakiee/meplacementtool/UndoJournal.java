@@ -0,0 +1,397 @@
+package com.moakiee.meplacementtool;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+
+import com.mojang.logging.LogUtils;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtAccounter;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+
+/**
+ * Append-only undo journal, one file per dimension under the world save.
+ * <p>
+ * Each frame is {@code int length, byte op, long entryId, long uuidMost, long uuidLeast} followed, for
+ * {@link #ADD}, by the entry's compact NBT. Replaying the ops in order gives every player's undo and redo
+ * stacks. Frames are encoded on the server thread and written by a single background thread, which also
+ * fsyncs every {@link Config#undoJournalSyncIntervalMs} and compacts a file (rewriting only the live entries)
+ * once it grows past {@link Config#undoJournalMaxSizeKb}. A torn frame at the end of a file (crash mid-write)
+ * is cut off when the file is next opened.
+ * <p>
+ * Opening a file also indexes the offsets of each player's frames, so {@link #load} reads back one player's
+ * frames on the writer thread without replaying everyone else's.
+ */
+public final class UndoJournal {
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    public static final byte ADD = 0;
+    public static final byte UNDO = 1;
+    public static final byte REDO = 2;
+    public static final byte DROP = 3;
+
+    // op + id + uuid
+    private static final int HEADER_BYTES = 1 + 8 + 16;
+
+    private final Path directory;
+    private final ScheduledThreadPoolExecutor writer;
+    // Writer thread only
+    private final Map<ResourceKey<Level>, FileChannel> channels = new HashMap<>();
+    private final Set<FileChannel> unsynced = new HashSet<>();
+    // Writer thread only: offsets of each player's frames in the open file of a dimension
+    private final Map<ResourceKey<Level>, Map<UUID, LongArrayList>> offsets = new HashMap<>();
+
+    /**
+     * A live entry of one player, oldest first.
+     *
+     * @param undone true if the entry is on the redo stack
+     */
+    public record Record(long id, CompoundTag entry, boolean undone) {
+    }
+
+    public UndoJournal(Path directory) {
+        this.directory = directory;
+        this.writer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "ME Placement Tool undo journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, Config.undoJournalSyncIntervalMs);
+        writer.scheduleWithFixedDelay(this::sync, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queue an op. {@code entry} is only written for {@link #ADD}.
+     */
+    public void append(ResourceKey<Level> dimension, byte op, long id, UUID player, @Nullable CompoundTag entry) {
+        byte[] frame;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(op == ADD ? 1024 : HEADER_BYTES + 4);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0);
+            out.writeByte(op);
+            out.writeLong(id);
+            out.writeLong(player.getMostSignificantBits());
+            out.writeLong(player.getLeastSignificantBits());
+            if (op == ADD && entry != null) {
+                NbtIo.write(entry, out);
+            }
+            frame = bytes.toByteArray();
+            ByteBuffer.wrap(frame).putInt(0, frame.length - 4);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to encode undo journal frame", e);
+            return;
+        }
+
+        writer.execute(() -> {
+            try {
+                FileChannel channel = channel(dimension);
+                offsets.get(dimension).computeIfAbsent(player, k -> new LongArrayList()).add(channel.position());
+                channel.write(ByteBuffer.wrap(frame));
+                unsynced.add(channel);
+                if (channel.size() > Config.undoJournalMaxSizeKb * 1024L) {
+                    compact(dimension);
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Failed to write undo journal for {}", dimension.location(), e);
+            }
+        });
+    }
+
+    /**
+     * Read back a player's live entries for a dimension on the writer thread. Runs after the writes queued
+     * so far, so it sees everything appended before the call; completes with an empty list on failure.
+     */
+    public CompletableFuture<List<Record>> load(ResourceKey<Level> dimension, UUID player) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                Map<Long, Live> live = replayPlayer(dimension, player);
+                List<Record> records = new ArrayList<>(live.size());
+                for (var entry : live.entrySet()) {
+                    CompoundTag tag = NbtIo.read(new DataInputStream(new ByteArrayInputStream(entry.getValue().payload)),
+                            NbtAccounter.UNLIMITED);
+                    records.add(new Record(entry.getKey(), tag, entry.getValue().undone));
+                }
+                return records;
+            } catch (IOException e) {
+                LOGGER.warn("Failed to read undo journal for {}", dimension.location(), e);
+                return List.<Record>of();
+            }
+        }, writer);
+    }
+
+    /**
+     * Flush, sync and close every file. Blocks until queued writes are done.
+     */
+    public void close() {
+        writer.execute(() -> {
+            sync();
+            for (FileChannel channel : channels.values()) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    LOGGER.warn("Failed to close undo journal", e);
+                }
+            }
+            channels.clear();
+            offsets.clear();
+        });
+        writer.shutdown();
+        try {
+            writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void sync() {
+        for (FileChannel channel : unsynced) {
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                LOGGER.warn("Failed to sync undo journal", e);
+            }
+        }
+        unsynced.clear();
+    }
+
+    private Path file(ResourceKey<Level> dimension) {
+        var location = dimension.location();
+        return directory.resolve(location.getNamespace() + "_" + location.getPath().replace('/', '_') + ".journal");
+    }
+
+    private FileChannel channel(ResourceKey<Level> dimension) throws IOException {
+        FileChannel channel = channels.get(dimension);
+        if (channel != null) return channel;
+
+        Files.createDirectories(directory);
+        channel = FileChannel.open(file(dimension), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        Map<UUID, LongArrayList> index = new HashMap<>();
+        long valid = scan(channel, index);
+        if (valid < channel.size()) {
+            LOGGER.warn("Dropping {} bytes of incomplete undo journal frames for {}", channel.size() - valid,
+                    dimension.location());
+            channel.truncate(valid);
+        }
+        channel.position(valid);
+        channels.put(dimension, channel);
+        offsets.put(dimension, index);
+        return channel;
+    }
+
+    /**
+     * Length of the prefix of the file made of complete frames; adds the offset of each of those frames to
+     * its player's list in {@code index}. Reads only the frame headers.
+     */
+    private static long scan(FileChannel channel, Map<UUID, LongArrayList> index) throws IOException {
+        long size = channel.size();
+        long pos = 0;
+        ByteBuffer header = ByteBuffer.allocate(4 + HEADER_BYTES);
+        while (pos + 4 + HEADER_BYTES <= size) {
+            header.clear();
+            readFully(channel, header, pos);
+            int length = header.getInt(0);
+            if (length < HEADER_BYTES || pos + 4 + length > size) break;
+            UUID owner = new UUID(header.getLong(4 + 9), header.getLong(4 + 17));
+            index.computeIfAbsent(owner, k -> new LongArrayList()).add(pos);
+            pos += 4 + length;
+        }
+        return pos;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long pos) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, pos + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    private static final class Live {
+        final UUID player;
+        final byte[] payload;
+        boolean undone;
+
+        Live(UUID player, byte[] payload) {
+            this.player = player;
+            this.payload = payload;
+        }
+    }
+
+    /**
+     * Replay a file into the live entries, in stack order: an undo or redo moves the entry to the end,
+     * so the undo stack and the redo stack are each in order of the map. {@code player} null keeps everyone.
+     */
+    private Map<Long, Live> replay(ResourceKey<Level> dimension, @Nullable UUID player) throws IOException {
+        Map<Long, Live> live = new LinkedHashMap<>();
+        Path file = file(dimension);
+        if (!Files.exists(file)) return live;
+
+        // Readers of the open file only see complete frames, as the writer is this thread
+        FileChannel open = channels.get(dimension);
+        long limit = open != null ? open.position() : Long.MAX_VALUE;
+        try (InputStream stream = Files.newInputStream(file);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+            long pos = 0;
+            while (pos < limit) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (length < HEADER_BYTES) break;
+                byte[] body = new byte[length];
+                try {
+                    in.readFully(body);
+                } catch (EOFException e) {
+                    break;
+                }
+                pos += 4 + length;
+
+                apply(live, ByteBuffer.wrap(body), player);
+            }
+        }
+        return live;
+    }
+
+    /**
+     * As {@link #replay} for one player, reading only that player's frames of the open file.
+     */
+    private Map<Long, Live> replayPlayer(ResourceKey<Level> dimension, UUID player) throws IOException {
+        Map<Long, Live> live = new LinkedHashMap<>();
+        if (!Files.exists(file(dimension))) return live;
+
+        FileChannel channel = channel(dimension);
+        LongArrayList frames = offsets.get(dimension).get(player);
+        if (frames == null) return live;
+        ByteBuffer length = ByteBuffer.allocate(4);
+        for (int i = 0; i < frames.size(); i++) {
+            long pos = frames.getLong(i);
+            length.clear();
+            readFully(channel, length, pos);
+            ByteBuffer body = ByteBuffer.allocate(length.getInt(0));
+            readFully(channel, body, pos + 4);
+            body.flip();
+            apply(live, body, player);
+        }
+        return live;
+    }
+
+    /**
+     * Apply one frame body to the live entries, keeping the stack order. {@code player} null keeps everyone.
+     */
+    private static void apply(Map<Long, Live> live, ByteBuffer frame, @Nullable UUID player) {
+        int length = frame.remaining();
+        byte op = frame.get();
+        long id = frame.getLong();
+        UUID owner = new UUID(frame.getLong(), frame.getLong());
+        if (player != null && !player.equals(owner)) return;
+
+        switch (op) {
+            case ADD -> {
+                byte[] payload = new byte[length - HEADER_BYTES];
+                frame.get(payload);
+                live.put(id, new Live(owner, payload));
+            }
+            case UNDO, REDO -> {
+                Live entry = live.remove(id);
+                if (entry != null) {
+                    entry.undone = op == UNDO;
+                    live.put(id, entry);
+                }
+            }
+            case DROP -> live.remove(id);
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Rewrite a file with only its live entries, oldest first, dropping the oldest ones if that alone
+     * doesn't bring it under three quarters of the cap.
+     */
+    private void compact(ResourceKey<Level> dimension) throws IOException {
+        Map<Long, Live> live = replay(dimension, null);
+        long target = Config.undoJournalMaxSizeKb * 1024L * 3 / 4;
+        long size = 0;
+        for (Live entry : live.values()) {
+            size += 4 + HEADER_BYTES + entry.payload.length + (entry.undone ? 4 + HEADER_BYTES : 0);
+        }
+        var iter = live.values().iterator();
+        while (size > target && iter.hasNext()) {
+            Live entry = iter.next();
+            size -= 4 + HEADER_BYTES + entry.payload.length + (entry.undone ? 4 + HEADER_BYTES : 0);
+            iter.remove();
+        }
+
+        Path file = file(dimension);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+                DataOutputStream data = new DataOutputStream(Channels.newOutputStream(out))) {
+            // Entries first, then the undo marks of the redo stack in order, which rebuilds both stacks
+            for (var entry : live.entrySet()) {
+                writeFrame(data, ADD, entry.getKey(), entry.getValue().player, entry.getValue().payload);
+            }
+            for (var entry : live.entrySet()) {
+                if (entry.getValue().undone) {
+                    writeFrame(data, UNDO, entry.getKey(), entry.getValue().player, new byte[0]);
+                }
+            }
+            data.flush();
+            out.force(false);
+        }
+
+        FileChannel old = channels.remove(dimension);
+        offsets.remove(dimension);
+        if (old != null) {
+            unsynced.remove(old);
+            old.close();
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        LOGGER.debug("Compacted undo journal for {} to {} entries", dimension.location(), live.size());
+    }
+
+    private static void writeFrame(DataOutputStream out, byte op, long id, UUID player, byte[] payload)
+            throws IOException {
+        out.writeInt(HEADER_BYTES + payload.length);
+        out.writeByte(op);
+        out.writeLong(id);
+        out.writeLong(player.getMostSignificantBits());
+        out.writeLong(player.getLeastSignificantBits());
+        out.write(payload);
+    }
+}
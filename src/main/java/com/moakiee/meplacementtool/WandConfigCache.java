@@ -0,0 +1,136 @@
+package com.moakiee.meplacementtool;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.items.ItemStackHandler;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.moakiee.meplacementtool.ItemMultiblockPlacementTool.DirectionMode;
+
+/**
+ * Small cache of decoded wand configurations, shared by the tools, the HUD, the previews and the radial menus.
+ * <p>
+ * Entries are keyed by the identity of the wand's "placement_config" tag. Every writer of that tag puts a
+ * fresh compound, so a changed config is a cache miss; writers additionally call {@link #invalidate()}
+ * in case a tag is ever modified in place. Safe to use from both the client and the server thread.
+ */
+public final class WandConfigCache {
+
+    private static final int SIZE = 8;
+
+    private static final CompoundTag[] keys = new CompoundTag[SIZE];
+    private static final WandConfig[] values = new WandConfig[SIZE];
+    private static final long[] revisions = new long[SIZE];
+    private static int next;
+    private static long revision;
+
+    private WandConfigCache() {}
+
+    public static WandConfig get(ItemStack wand) {
+        return get(WandNbt.getConfig(wand));
+    }
+
+    public static synchronized WandConfig get(@Nullable CompoundTag cfg) {
+        if (cfg == null) return WandConfig.EMPTY;
+
+        for (int i = 0; i < SIZE; i++) {
+            if (keys[i] == cfg && revisions[i] == revision) {
+                return values[i];
+            }
+        }
+
+        WandConfig config = WandConfig.decode(cfg);
+        keys[next] = cfg;
+        values[next] = config;
+        revisions[next] = revision;
+        next = (next + 1) % SIZE;
+        return config;
+    }
+
+    /**
+     * Changes whenever {@link #invalidate()} is called; together with the config tag's identity this is a
+     * cheap way for callers to tell whether a wand's configuration changed.
+     */
+    public static synchronized long getRevision() {
+        return revision;
+    }
+
+    /**
+     * Drop every cached entry. Call after writing a wand's "placement_config" tag.
+     */
+    public static synchronized void invalidate() {
+        revision++;
+    }
+
+    /**
+     * A decoded wand configuration. The stacks are shared between callers and must not be modified;
+     * copy them before handing them to anything that might.
+     */
+    public static final class WandConfig {
+        static final WandConfig EMPTY = new WandConfig(new ItemStack[18], new String[18], 0, DirectionMode.AUTO);
+
+        private final ItemStack[] items;
+        private final String[] fluids;
+        private final int selectedSlot;
+        private final DirectionMode directionMode;
+
+        private WandConfig(ItemStack[] items, String[] fluids, int selectedSlot, DirectionMode directionMode) {
+            this.items = items;
+            this.fluids = fluids;
+            this.selectedSlot = selectedSlot;
+            this.directionMode = directionMode;
+        }
+
+        static WandConfig decode(CompoundTag cfg) {
+            ItemStackHandler handler = WandNbt.readInventory(cfg);
+            ItemStack[] items = new ItemStack[handler.getSlots()];
+            for (int i = 0; i < items.length; i++) {
+                items[i] = handler.getStackInSlot(i);
+            }
+
+            String[] fluids = new String[items.length];
+            if (cfg.contains("fluids")) {
+                CompoundTag fluidTag = cfg.getCompound("fluids");
+                for (int i = 0; i < fluids.length; i++) {
+                    String fluidId = fluidTag.getString(Integer.toString(i));
+                    fluids[i] = fluidId.isEmpty() ? null : fluidId;
+                }
+            }
+
+            DirectionMode directionMode = cfg.contains("DirectionMode")
+                    ? DirectionMode.fromId(cfg.getInt("DirectionMode"))
+                    : DirectionMode.AUTO;
+            return new WandConfig(items, fluids, WandNbt.getSelectedSlot(cfg), directionMode);
+        }
+
+        public int getSlots() {
+            return items.length;
+        }
+
+        public ItemStack getStack(int slot) {
+            ItemStack stack = slot >= 0 && slot < items.length ? items[slot] : null;
+            return stack != null ? stack : ItemStack.EMPTY;
+        }
+
+        public ItemStack getSelectedStack() {
+            return getStack(selectedSlot);
+        }
+
+        /**
+         * The fluid id configured for the slot, or null.
+         */
+        @Nullable
+        public String getFluidId(int slot) {
+            return slot >= 0 && slot < fluids.length ? fluids[slot] : null;
+        }
+
+        public int getSelectedSlot() {
+            return selectedSlot;
+        }
+
+        public DirectionMode getDirectionMode() {
+            return directionMode;
+        }
+    }
+}
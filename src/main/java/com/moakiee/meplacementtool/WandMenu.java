@@ -228,6 +228,7 @@ public class WandMenu extends AEBaseMenu {
                 }
 
                 main.getOrCreateTag().put(TAG_KEY, combined);
+                WandConfigCache.invalidate();
             }
         } else {
             // Client side: send to server
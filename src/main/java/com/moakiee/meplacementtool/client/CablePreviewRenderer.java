@@ -10,8 +10,10 @@ import static net.minecraft.client.renderer.RenderStateShard.VIEW_OFFSET_Z_LAYER
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.OptionalDouble;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import com.mojang.blaze3d.vertex.DefaultVertexFormat;
 import com.mojang.blaze3d.vertex.PoseStack;
@@ -21,6 +23,7 @@ import com.mojang.blaze3d.vertex.VertexFormat;
 import org.joml.Matrix3f;
 import org.joml.Matrix4f;
 
+import org.jetbrains.annotations.Nullable;
 import org.lwjgl.opengl.GL11;
 
 import net.minecraft.client.Camera;
@@ -33,6 +36,8 @@ import net.minecraft.client.renderer.RenderType;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.BlockHitResult;
 import net.minecraft.world.phys.HitResult;
 import net.minecraft.world.phys.shapes.Shapes;
@@ -41,8 +46,17 @@ import net.minecraftforge.client.event.RenderHighlightEvent;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.eventbus.api.EventPriority;
 
+import appeng.api.parts.IPartHost;
+import appeng.api.util.AEColor;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+import com.moakiee.meplacementtool.CablePositions;
+import com.moakiee.meplacementtool.CableRouter;
+import com.moakiee.meplacementtool.Config;
 import com.moakiee.meplacementtool.ItemMECablePlacementTool;
 import com.moakiee.meplacementtool.MEPlacementToolMod;
+import com.moakiee.meplacementtool.PositionCursor;
 
 /**
  * Renders placement preview for ME Cable Placement Tool.
@@ -92,6 +106,22 @@ public class CablePreviewRenderer {
     // Cache for last target position (used when looking at air)
     private static BlockPos lastTargetPos = null;
 
+    // Preview bounds are computed off the render thread, see getPreviewBounds
+    private static final PreviewWorker<List<int[]>> worker = new PreviewWorker<>("ME Placement Tool cable preview");
+    private static SectionSnapshot snapshot;
+    private static ClientLevel requestedLevel;
+    private static ItemMECablePlacementTool.PlacementMode requestedMode;
+    private static BlockPos requestedA;
+    private static BlockPos requestedB;
+    private static BlockPos requestedC;
+    private static AEColor requestedColor;
+    // ROUTE mode: cells of the snapshot whose existing cable a route can run through
+    private static LongOpenHashSet routeReusable;
+
+    // Flag key of ROUTE mode snapshots, which depend on the cable color
+    private record RouteFlags(AEColor color) {
+    }
+
     public static void install() {
         MinecraftForge.EVENT_BUS.addListener(EventPriority.HIGH, CablePreviewRenderer::handleBlockEvent);
         MinecraftForge.EVENT_BUS.addListener(EventPriority.HIGH, CablePreviewRenderer::handleRenderEvent);
@@ -140,6 +170,7 @@ public class CablePreviewRenderer {
         ItemStack wand = player.getMainHandItem();
         if (wand.isEmpty() || wand.getItem() != MEPlacementToolMod.ME_CABLE_PLACEMENT_TOOL.get()) {
             lastTargetPos = null;  // Clear cache when not holding tool
+            clearPreview();
             return;
         }
         
@@ -192,18 +223,15 @@ public class CablePreviewRenderer {
                 // LINE mode: use player look direction
                 BlockPos lineEnd = ItemMECablePlacementTool.findLine(player, point1);
                 if (lineEnd != null) {
-                    List<BlockPos> positions = ItemMECablePlacementTool.calculatePositions(point1, lineEnd, mode);
                     // Render bounding box with rainbow gradient
-                    renderRainbowBoundingBox(poseStack, buffers, camera, level, positions, 0.6f, false);
-                    renderRainbowBoundingBox(poseStack, buffers, camera, level, positions, 0.2f, true);
+                    renderPreviewBounds(poseStack, buffers, camera, getPreviewBounds(level, point1, lineEnd, null, mode));
                 }
-            } else if (mode == ItemMECablePlacementTool.PlacementMode.PLANE_FILL) {
-                // PLANE_FILL: use cached lastTargetPos
+            } else if (mode == ItemMECablePlacementTool.PlacementMode.PLANE_FILL
+                    || mode == ItemMECablePlacementTool.PlacementMode.ROUTE) {
+                // PLANE_FILL and ROUTE: use cached lastTargetPos
                 if (lastTargetPos != null) {
-                    List<BlockPos> positions = ItemMECablePlacementTool.calculatePositions(point1, lastTargetPos, mode);
                     // Render bounding box with rainbow gradient
-                    renderRainbowBoundingBox(poseStack, buffers, camera, level, positions, 0.6f, false);
-                    renderRainbowBoundingBox(poseStack, buffers, camera, level, positions, 0.2f, true);
+                    renderPreviewBounds(poseStack, buffers, camera, getPreviewBounds(level, point1, lastTargetPos, null, mode));
                 }
             } else if (mode == ItemMECablePlacementTool.PlacementMode.PLANE_BRANCHING) {
                 // PLANE_BRANCHING: use cached lastTargetPos for point2 or point3
@@ -211,7 +239,7 @@ public class CablePreviewRenderer {
                     renderSingleBlockOutline(poseStack, buffers, camera, point2, 1.0f, 0.5f, 0.0f, 0.8f, false);
                     renderSingleBlockOutline(poseStack, buffers, camera, point2, 1.0f, 0.5f, 0.0f, 0.3f, true);
                     if (lastTargetPos != null) {
-                        renderBranchingSegments(poseStack, buffers, camera, level, point1, point2, lastTargetPos);
+                        renderPreviewBounds(poseStack, buffers, camera, getPreviewBounds(level, point1, point2, lastTargetPos, mode));
                     }
                 }
             }
@@ -241,12 +269,12 @@ public class CablePreviewRenderer {
                     renderSingleBlockOutline(poseStack, buffers, camera, point2, 1.0f, 0.5f, 0.0f, 0.3f, true);
                     
                     // Show preview with point3 as target - render each segment separately
-                    renderBranchingSegments(poseStack, buffers, camera, level, point1, point2, targetPos);
+                    renderPreviewBounds(poseStack, buffers, camera, getPreviewBounds(level, point1, point2, targetPos, mode));
                 }
                 return true;
             }
         } else {
-            // LINE and PLANE_FILL use 2 points
+            // LINE, PLANE_FILL and ROUTE use 2 points
             if (point1 != null) {
                 // Render point1 marker
                 renderSingleBlockOutline(poseStack, buffers, camera, point1, POINT1_RED, POINT1_GREEN, POINT1_BLUE, 0.8f, false);
@@ -262,9 +290,7 @@ public class CablePreviewRenderer {
                 }
 
                 // Calculate and render preview bounding box with rainbow gradient
-                List<BlockPos> positions = ItemMECablePlacementTool.calculatePositions(point1, endPos, mode);
-                renderRainbowBoundingBox(poseStack, buffers, camera, level, positions, 0.6f, false);
-                renderRainbowBoundingBox(poseStack, buffers, camera, level, positions, 0.2f, true);
+                renderPreviewBounds(poseStack, buffers, camera, getPreviewBounds(level, point1, endPos, null, mode));
 
                 return true;
             }
@@ -278,144 +304,197 @@ public class CablePreviewRenderer {
         return false;
     }
 
-    private static void renderBranchingSegments(PoseStack poseStack, MultiBufferSource buffers, Camera camera, ClientLevel level, BlockPos p1, BlockPos p2, BlockPos p3) {
-        int x1 = p1.getX(), y1 = p1.getY(), z1 = p1.getZ();
-        int x2 = p2.getX(), y2 = p2.getY(), z2 = p2.getZ();
-        int x3 = p3.getX(), y3 = p3.getY(), z3 = p3.getZ();
-
-        // P1 to P2 determines trunk direction and branch interval
-        int dx12 = x2 - x1;
-        int dy12 = y2 - y1;
-        int dz12 = z2 - z1;
-
-        // Find the dominant axis for trunk direction
-        int absDx = Math.abs(dx12);
-        int absDy = Math.abs(dy12);
-        int absDz = Math.abs(dz12);
-
-        // Trunk axis: 0=X, 1=Y, 2=Z
-        int trunkAxis;
-        int trunkDir;
-        int interval;
-
-        if (absDx >= absDy && absDx >= absDz) {
-            trunkAxis = 0;
-            trunkDir = dx12 == 0 ? 1 : Integer.signum(dx12);
-            interval = Math.max(1, absDx);
-        } else if (absDy >= absDx && absDy >= absDz) {
-            trunkAxis = 1;
-            trunkDir = dy12 == 0 ? 1 : Integer.signum(dy12);
-            interval = Math.max(1, absDy);
-        } else {
-            trunkAxis = 2;
-            trunkDir = dz12 == 0 ? 1 : Integer.signum(dz12);
-            interval = Math.max(1, absDz);
-        }
-
-        // P1 to P3 determines the extent
-        int dx13 = x3 - x1;
-        int dy13 = y3 - y1;
-        int dz13 = z3 - z1;
-
-        // Determine branch axis
-        int branchAxis;
-        int branchDir;
-        int trunkLength;
-        int branchLength;
-
-        if (trunkAxis == 0) {
-            trunkLength = Math.abs(dx13);
-            if (Math.abs(dy13) >= Math.abs(dz13)) {
-                branchAxis = 1;
-                branchLength = Math.abs(dy13);
-                branchDir = dy13 == 0 ? 1 : Integer.signum(dy13);
+    /**
+     * Valid-cell bounds for the current selection, one entry per outline to draw (a single box for
+     * LINE/PLANE_FILL, trunk plus one per branch for PLANE_BRANCHING, one per straight run of the route for
+     * ROUTE). Scanning the cells is the expensive part of the preview, so it runs on a {@link PreviewWorker}
+     * against a {@link SectionSnapshot}; a new scan is requested when the selection changes or the snapshot
+     * goes stale, and until it completes the previous bounds are shown.
+     */
+    private static List<int[]> getPreviewBounds(ClientLevel level, BlockPos a, BlockPos b, @Nullable BlockPos c,
+            ItemMECablePlacementTool.PlacementMode mode) {
+        var player = Minecraft.getInstance().player;
+        AEColor color = player != null
+                ? ItemMECablePlacementTool.getPlacementColor(player, player.getMainHandItem())
+                : AEColor.TRANSPARENT;
+        if (level != requestedLevel || mode != requestedMode || color != requestedColor
+                || !a.equals(requestedA) || !b.equals(requestedB) || !Objects.equals(c, requestedC)
+                || (snapshot != null && !snapshot.isCurrent())) {
+            requestedLevel = level;
+            requestedMode = mode;
+            requestedColor = color;
+            requestedA = a.immutable();
+            requestedB = b.immutable();
+            requestedC = c != null ? c.immutable() : null;
+            if (mode == ItemMECablePlacementTool.PlacementMode.ROUTE) {
+                submitRoutePreview(level, requestedA, requestedB, color);
             } else {
-                branchAxis = 2;
-                branchLength = Math.abs(dz13);
-                branchDir = dz13 == 0 ? 1 : Integer.signum(dz13);
+                submitPreview(level, requestedA, requestedB, requestedC, mode);
             }
-        } else if (trunkAxis == 1) {
-            trunkLength = Math.abs(dy13);
-            if (Math.abs(dx13) >= Math.abs(dz13)) {
-                branchAxis = 0;
-                branchLength = Math.abs(dx13);
-                branchDir = dx13 == 0 ? 1 : Integer.signum(dx13);
-            } else {
-                branchAxis = 2;
-                branchLength = Math.abs(dz13);
-                branchDir = dz13 == 0 ? 1 : Integer.signum(dz13);
+        }
+
+        List<int[]> bounds = worker.getLatest();
+        return bounds != null ? bounds : List.of();
+    }
+
+    private static void submitPreview(ClientLevel level, BlockPos a, BlockPos b, @Nullable BlockPos c,
+            ItemMECablePlacementTool.PlacementMode mode) {
+        // The snapshot box comes from the endpoints; only the worker walks the cells
+        List<PositionCursor> segments = new ArrayList<>();
+        int[] box = null;
+        if (mode == ItemMECablePlacementTool.PlacementMode.PLANE_BRANCHING) {
+            var layout = CablePositions.BranchLayout.of(a, b, c);
+            // Over the limit would be rejected on placement, don't scan it
+            if (layout.size() <= Config.cablePlacementToolMaxVolume) {
+                segments.add(layout.trunk());
+                for (int t = 0; t <= layout.trunkLength(); t += layout.interval()) {
+                    segments.add(layout.branchAt(t));
+                }
+                box = layout.bounds();
             }
         } else {
-            trunkLength = Math.abs(dz13);
-            if (Math.abs(dx13) >= Math.abs(dy13)) {
-                branchAxis = 0;
-                branchLength = Math.abs(dx13);
-                branchDir = dx13 == 0 ? 1 : Integer.signum(dx13);
-            } else {
-                branchAxis = 1;
-                branchLength = Math.abs(dy13);
-                branchDir = dy13 == 0 ? 1 : Integer.signum(dy13);
+            PositionCursor positions = CablePositions.forMode(a, b, mode);
+            if (positions.size() > 0 && positions.size() <= Config.cablePlacementToolMaxVolume) {
+                segments.add(positions);
+                box = CablePositions.bounds(a, b, mode);
             }
         }
-
-        // 1. Render Trunk with rainbow gradient bounding box
-        List<BlockPos> trunkPositions = new ArrayList<>();
-        BlockPos.MutableBlockPos trunkMut = new BlockPos.MutableBlockPos();
-        for (int t = 0; t <= trunkLength; t++) {
-            int tx = x1, ty = y1, tz = z1;
-            if (trunkAxis == 0) tx = x1 + t * trunkDir;
-            else if (trunkAxis == 1) ty = y1 + t * trunkDir;
-            else tz = z1 + t * trunkDir;
-            trunkPositions.add(trunkMut.set(tx, ty, tz).immutable());
+        if (box == null) {
+            snapshot = null;
+            worker.submit(cancelled -> List.of());
+            return;
         }
-        renderRainbowBoundingBox(poseStack, buffers, camera, level, trunkPositions, 0.6f, false);
-        renderRainbowBoundingBox(poseStack, buffers, camera, level, trunkPositions, 0.2f, true);
-
-        // 2. Render Branches with rainbow gradient bounding boxes
-        BlockPos.MutableBlockPos branchMut = new BlockPos.MutableBlockPos();
-        for (int t = 0; t <= trunkLength; t++) {
-            if (t % interval == 0) {
-                int tx = x1, ty = y1, tz = z1;
-                if (trunkAxis == 0) tx = x1 + t * trunkDir;
-                else if (trunkAxis == 1) ty = y1 + t * trunkDir;
-                else tz = z1 + t * trunkDir;
-
-                List<BlockPos> branchPositions = new ArrayList<>();
-                for (int b = 0; b <= branchLength; b++) {
-                    int bx = tx, by = ty, bz = tz;
-                    if (branchAxis == 0) bx = tx + b * branchDir;
-                    else if (branchAxis == 1) by = ty + b * branchDir;
-                    else bz = tz + b * branchDir;
-                    branchPositions.add(branchMut.set(bx, by, bz).immutable());
-                }
-                if (!branchPositions.isEmpty()) {
-                    renderRainbowBoundingBox(poseStack, buffers, camera, level, branchPositions, 0.6f, false);
-                    renderRainbowBoundingBox(poseStack, buffers, camera, level, branchPositions, 0.2f, true);
-                }
+        if (snapshot == null || !snapshot.canReuse(level, box[0], box[1], box[2], box[3], box[4], box[5], null)) {
+            // Cable can go into air, or into a cable bus that has no centre cable yet
+            snapshot = SectionSnapshot.capture(level, box[0], box[1], box[2], box[3], box[4], box[5], null,
+                    BlockState::isAir, IPartHost.class,
+                    blockEntity -> ((IPartHost) blockEntity).getPart(null) == null);
+            routeReusable = null;
+        }
+
+        SectionSnapshot snap = snapshot;
+        worker.submit(cancelled -> {
+            List<int[]> bounds = new ArrayList<>();
+            for (PositionCursor segment : segments) {
+                addValidBounds(bounds, pos -> {
+                    PreviewWorker.checkCancelled(cancelled);
+                    return snap.isStateFlagged(pos) || snap.isBlockEntityFlagged(pos);
+                }, segment);
             }
+            return bounds;
+        });
+    }
+
+    /**
+     * ROUTE mode: run the placement's path search against a snapshot of the search box, and outline each
+     * straight run of the route found. A search box larger than {@link Config#cablePlacementToolMaxVolume}
+     * isn't copied and shows no preview; the placement itself only visits the cells it expands.
+     */
+    private static void submitRoutePreview(ClientLevel level, BlockPos a, BlockPos b, AEColor color) {
+        int minX = Math.min(a.getX(), b.getX()) - CableRouter.MARGIN, maxX = Math.max(a.getX(), b.getX()) + CableRouter.MARGIN;
+        int minY = Math.min(a.getY(), b.getY()) - CableRouter.MARGIN, maxY = Math.max(a.getY(), b.getY()) + CableRouter.MARGIN;
+        int minZ = Math.min(a.getZ(), b.getZ()) - CableRouter.MARGIN, maxZ = Math.max(a.getZ(), b.getZ()) + CableRouter.MARGIN;
+        long volume = (maxX - minX + 1L) * (maxY - minY + 1L) * (maxZ - minZ + 1L);
+        if (volume > Config.cablePlacementToolMaxVolume) {
+            snapshot = null;
+            routeReusable = null;
+            worker.submit(cancelled -> List.of());
+            return;
+        }
+        RouteFlags flags = new RouteFlags(color);
+        if (snapshot == null || routeReusable == null
+                || !snapshot.canReuse(level, minX, minY, minZ, maxX, maxY, maxZ, flags)) {
+            LongOpenHashSet reusable = new LongOpenHashSet();
+            // Void air marks cells outside the world or in unloaded chunks
+            snapshot = SectionSnapshot.capture(level, minX, minY, minZ, maxX, maxY, maxZ, flags,
+                    state -> state.isAir() && !state.is(Blocks.VOID_AIR), IPartHost.class,
+                    blockEntity -> {
+                        int cost = ItemMECablePlacementTool.getRouteCost((IPartHost) blockEntity, color);
+                        if (cost == CableRouter.REUSE) {
+                            reusable.add(blockEntity.getBlockPos().asLong());
+                        }
+                        return cost == CableRouter.PLACE;
+                    });
+            routeReusable = reusable;
         }
+
+        SectionSnapshot snap = snapshot;
+        LongOpenHashSet reusable = routeReusable;
+        int maxNodes = Config.cableRouteMaxNodes;
+        long maxNanos = (long) (Config.cableRouteTimeBudgetMs * 1_000_000L);
+        worker.submit(cancelled -> {
+            BlockPos.MutableBlockPos cell = new BlockPos.MutableBlockPos();
+            long[] route = CableRouter.find(a, b, maxNodes, maxNanos, pos -> {
+                PreviewWorker.checkCancelled(cancelled);
+                if (reusable.contains(pos)) {
+                    return CableRouter.REUSE;
+                }
+                cell.set(pos);
+                return snap.isStateFlagged(cell) || snap.isBlockEntityFlagged(cell)
+                        ? CableRouter.PLACE
+                        : CableRouter.BLOCKED;
+            });
+            return route != null ? getRouteRuns(route) : List.of();
+        });
     }
 
     /**
-     * Render a bounding box around all positions as a single outline with exactly 12 edges.
-     * Uses time-based rainbow color for smooth animation.
+     * {minX, minY, minZ, maxX, maxY, maxZ} of each straight run of a route; neighbouring runs share their
+     * corner cell.
      */
-    private static void renderRainbowBoundingBox(PoseStack poseStack,
-            MultiBufferSource buffers,
-            Camera camera,
-            ClientLevel level,
-            List<BlockPos> positions,
-            float alpha,
-            boolean insideBlock) {
+    private static List<int[]> getRouteRuns(long[] route) {
+        List<int[]> runs = new ArrayList<>();
+        int start = 0;
+        do {
+            int end = start;
+            if (end + 1 < route.length) {
+                long step = getStep(route[end], route[end + 1]);
+                while (end + 1 < route.length && getStep(route[end], route[end + 1]) == step) {
+                    end++;
+                }
+            }
+            long from = route[start], to = route[end];
+            runs.add(new int[] {
+                    Math.min(BlockPos.getX(from), BlockPos.getX(to)),
+                    Math.min(BlockPos.getY(from), BlockPos.getY(to)),
+                    Math.min(BlockPos.getZ(from), BlockPos.getZ(to)),
+                    Math.max(BlockPos.getX(from), BlockPos.getX(to)),
+                    Math.max(BlockPos.getY(from), BlockPos.getY(to)),
+                    Math.max(BlockPos.getZ(from), BlockPos.getZ(to)) });
+            start = end;
+        } while (start < route.length - 1);
+        return runs;
+    }
 
-        if (positions.isEmpty()) return;
+    private static long getStep(long from, long to) {
+        return BlockPos.asLong(BlockPos.getX(to) - BlockPos.getX(from), BlockPos.getY(to) - BlockPos.getY(from),
+                BlockPos.getZ(to) - BlockPos.getZ(from));
+    }
 
-        // Calculate bounding box of all positions
+    private static void clearPreview() {
+        worker.clear();
+        snapshot = null;
+        requestedLevel = null;
+        requestedMode = null;
+        requestedColor = null;
+        routeReusable = null;
+        requestedA = null;
+        requestedB = null;
+        requestedC = null;
+    }
+
+    /**
+     * Add {minX, minY, minZ, maxX, maxY, maxZ} of the cells a cable can be placed at, if there are any.
+     * A null filter takes every cell.
+     */
+    private static void addValidBounds(List<int[]> out, @Nullable Predicate<BlockPos> canPlace, PositionCursor positions) {
         int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
         int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
 
-        for (BlockPos pos : positions) {
-            if (ItemMECablePlacementTool.canPlaceCableAt(level, pos)) {  // Only include valid placement positions
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        positions.reset();
+        while (positions.next(pos)) {
+            if (canPlace == null || canPlace.test(pos)) {  // Only include valid placement positions
                 minX = Math.min(minX, pos.getX());
                 minY = Math.min(minY, pos.getY());
                 minZ = Math.min(minZ, pos.getZ());
@@ -425,7 +504,31 @@ public class CablePreviewRenderer {
             }
         }
 
-        if (minX == Integer.MAX_VALUE) return;  // No valid positions
+        if (minX != Integer.MAX_VALUE) {
+            out.add(new int[] { minX, minY, minZ, maxX, maxY, maxZ });
+        }
+    }
+
+    private static void renderPreviewBounds(PoseStack poseStack, MultiBufferSource buffers, Camera camera, List<int[]> bounds) {
+        for (int[] box : bounds) {
+            renderRainbowBoundingBox(poseStack, buffers, camera, box, 0.6f, false);
+            renderRainbowBoundingBox(poseStack, buffers, camera, box, 0.2f, true);
+        }
+    }
+
+    /**
+     * Render a bounding box as a single outline with exactly 12 edges.
+     * Uses time-based rainbow color for smooth animation.
+     */
+    private static void renderRainbowBoundingBox(PoseStack poseStack,
+            MultiBufferSource buffers,
+            Camera camera,
+            int[] bounds,
+            float alpha,
+            boolean insideBlock) {
+
+        int minX = bounds[0], minY = bounds[1], minZ = bounds[2];
+        int maxX = bounds[3], maxY = bounds[4], maxZ = bounds[5];
 
         RenderType renderType = insideBlock ? LINES_BEHIND_BLOCK : RenderType.lines();
         var buffer = buffers.getBuffer(renderType);
@@ -373,8 +373,8 @@ public class CableToolScreen extends AbstractContainerScreen<CableToolMenu> {
 
         int selectedMode = menu.currentMode;
         ItemMECablePlacementTool.PlacementMode[] modes = ItemMECablePlacementTool.PlacementMode.values();
-        String[] modeIcons = {"L", "F", "B"};
-        String[] modeKeys = {"line", "plane_fill", "plane_branching"};
+        String[] modeIcons = {"L", "F", "B", "R"};
+        String[] modeKeys = {"line", "plane_fill", "plane_branching", "route"};
 
         int rowHeight = MODE_BTN_HEIGHT + MODE_BTN_SPACING;
         int totalHeight = modes.length * MODE_BTN_HEIGHT + (modes.length - 1) * MODE_BTN_SPACING;
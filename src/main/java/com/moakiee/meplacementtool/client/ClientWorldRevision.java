@@ -0,0 +1,140 @@
+package com.moakiee.meplacementtool.client;
+
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.player.PlayerInteractEvent;
+import net.minecraftforge.event.level.BlockEvent;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.event.level.LevelEvent;
+
+/**
+ * Revision counters for the client world, used to invalidate cached preview data.
+ * <p>
+ * {@link #get()} is a coarse revision. Forge has no client-side block change event, so it is bumped on the
+ * events we do get (level/chunk load and unload, the local player's own block interactions) and additionally
+ * every {@link #EPOCH_TICKS} client ticks so that server-driven changes show up shortly after.
+ * <p>
+ * {@link #sectionChangedSince} is the precise variant for block states: the client level fires a neighbour
+ * notification for every block it sets, including those sent by the server, so each change is recorded
+ * against its chunk section. Block entity data (e.g. AE2 part hosts) is not covered and needs the coarse revision.
+ */
+public final class ClientWorldRevision {
+    private ClientWorldRevision() {
+    }
+
+    private static final int EPOCH_TICKS = 10;
+    // Beyond this many tracked sections the map is dropped and everything counts as changed once
+    private static final int MAX_TRACKED_SECTIONS = 4096;
+
+    private static long revision;
+    private static int ticksSinceBump;
+
+    private static long changeCount;
+    private static long untrackedSince;
+    private static final Long2LongOpenHashMap sectionChanges = new Long2LongOpenHashMap();
+
+    public static void install() {
+        MinecraftForge.EVENT_BUS.addListener(ClientWorldRevision::onClientTick);
+        MinecraftForge.EVENT_BUS.addListener(ClientWorldRevision::onChunkLoad);
+        MinecraftForge.EVENT_BUS.addListener(ClientWorldRevision::onChunkUnload);
+        MinecraftForge.EVENT_BUS.addListener(ClientWorldRevision::onLevelLoad);
+        MinecraftForge.EVENT_BUS.addListener(ClientWorldRevision::onLevelUnload);
+        MinecraftForge.EVENT_BUS.addListener(ClientWorldRevision::onRightClickBlock);
+        MinecraftForge.EVENT_BUS.addListener(ClientWorldRevision::onLeftClickBlock);
+        MinecraftForge.EVENT_BUS.addListener(ClientWorldRevision::onNeighborNotify);
+    }
+
+    public static long get() {
+        return revision;
+    }
+
+    public static void bump() {
+        revision++;
+        ticksSinceBump = 0;
+    }
+
+    /**
+     * Current block change counter; pass it to {@link #sectionChangedSince} later.
+     */
+    public static long getChangeCount() {
+        return changeCount;
+    }
+
+    /**
+     * Whether a block in the given section (a {@link SectionPos#asLong} key) changed after {@code changeCount}.
+     */
+    public static boolean sectionChangedSince(long sectionKey, long changeCount) {
+        return sectionChanges.getOrDefault(sectionKey, untrackedSince) > changeCount;
+    }
+
+    private static void markSection(long sectionKey) {
+        if (sectionChanges.size() >= MAX_TRACKED_SECTIONS) {
+            clearSections();
+        }
+        sectionChanges.put(sectionKey, ++changeCount);
+    }
+
+    private static void markChunk(LevelAccessor level, int chunkX, int chunkZ) {
+        for (int y = level.getMinSection(); y < level.getMaxSection(); y++) {
+            markSection(SectionPos.asLong(chunkX, y, chunkZ));
+        }
+    }
+
+    private static void clearSections() {
+        sectionChanges.clear();
+        untrackedSince = ++changeCount;
+    }
+
+    private static void onClientTick(TickEvent.ClientTickEvent event) {
+        if (event.phase != TickEvent.Phase.END) return;
+        if (++ticksSinceBump >= EPOCH_TICKS) {
+            bump();
+        }
+    }
+
+    private static void onNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+        if (event.getLevel().isClientSide()) {
+            markSection(SectionPos.asLong(event.getPos()));
+        }
+    }
+
+    private static void onChunkLoad(ChunkEvent.Load event) {
+        if (event.getLevel().isClientSide()) {
+            bump();
+            markChunk(event.getLevel(), event.getChunk().getPos().x, event.getChunk().getPos().z);
+        }
+    }
+
+    private static void onChunkUnload(ChunkEvent.Unload event) {
+        if (event.getLevel().isClientSide()) {
+            bump();
+            markChunk(event.getLevel(), event.getChunk().getPos().x, event.getChunk().getPos().z);
+        }
+    }
+
+    private static void onLevelLoad(LevelEvent.Load event) {
+        if (event.getLevel().isClientSide()) {
+            bump();
+            clearSections();
+        }
+    }
+
+    private static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel().isClientSide()) {
+            bump();
+            clearSections();
+        }
+    }
+
+    private static void onRightClickBlock(PlayerInteractEvent.RightClickBlock event) {
+        if (event.getLevel().isClientSide()) bump();
+    }
+
+    private static void onLeftClickBlock(PlayerInteractEvent.LeftClickBlock event) {
+        if (event.getLevel().isClientSide()) bump();
+    }
+}
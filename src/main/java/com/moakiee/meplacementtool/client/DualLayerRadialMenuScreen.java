@@ -16,13 +16,13 @@ import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.chat.Component;
 import net.minecraft.util.Mth;
 import net.minecraft.world.item.ItemStack;
-import net.minecraftforge.items.ItemStackHandler;
 
 import appeng.api.stacks.AEFluidKey;
 import appeng.api.stacks.GenericStack;
 
 import com.moakiee.meplacementtool.ItemMultiblockPlacementTool.DirectionMode;
 import com.moakiee.meplacementtool.MEPlacementToolMod;
+import com.moakiee.meplacementtool.WandConfigCache;
 import com.moakiee.meplacementtool.WandMenu;
 import com.moakiee.meplacementtool.WandNbt;
 import com.moakiee.meplacementtool.network.ModNetwork;
@@ -111,14 +111,12 @@ public class DualLayerRadialMenuScreen extends Screen {
             return;
         }
 
-        ItemStackHandler handler = WandNbt.readInventory(cfg);
+        WandConfigCache.WandConfig config = WandConfigCache.get(cfg);
 
-        CompoundTag fluids = cfg.contains("fluids") ? cfg.getCompound("fluids") : new CompoundTag();
-
-        int slotCount = handler.getSlots();
+        int slotCount = config.getSlots();
         for (int i = 0; i < slotCount; i++) {
-            ItemStack stack = handler.getStackInSlot(i);
-            String fluidId = fluids.getString(Integer.toString(i));
+            ItemStack stack = config.getStack(i);
+            String fluidId = config.getFluidId(i);
 
             if (!stack.isEmpty()) {
                 try {
@@ -170,6 +168,7 @@ public class DualLayerRadialMenuScreen extends Screen {
         CompoundTag cfg = data.contains(WandMenu.TAG_KEY) ? data.getCompound(WandMenu.TAG_KEY).copy() : new CompoundTag();
         cfg.putInt("SelectedSlot", slotIndex);
         data.put(WandMenu.TAG_KEY, cfg);
+        WandConfigCache.invalidate();
 
         ModNetwork.CHANNEL.sendToServer(new UpdateWandConfigPacket(cfg));
 
@@ -205,6 +204,7 @@ public class DualLayerRadialMenuScreen extends Screen {
         CompoundTag cfg = data.contains(WandMenu.TAG_KEY) ? data.getCompound(WandMenu.TAG_KEY).copy() : new CompoundTag();
         cfg.putInt("DirectionMode", mode.ordinal());
         data.put(WandMenu.TAG_KEY, cfg);
+        WandConfigCache.invalidate();
 
         ModNetwork.CHANNEL.sendToServer(new UpdateDirectionModePacket(mode.ordinal()));
 
@@ -26,7 +26,6 @@ import net.minecraft.client.renderer.RenderStateShard;
 import net.minecraft.client.renderer.RenderType;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
-import net.minecraft.nbt.CompoundTag;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.phys.AABB;
@@ -44,7 +43,7 @@ import appeng.parts.BusCollisionHelper;
 import appeng.parts.PartPlacement;
 
 import com.moakiee.meplacementtool.MEPlacementToolMod;
-import com.moakiee.meplacementtool.WandNbt;
+import com.moakiee.meplacementtool.WandConfigCache;
 
 /**
  * Renders placement preview for ME Placement Tool when holding cables, panels, quartz fiber, etc.
@@ -151,11 +150,7 @@ public class MEPartPreviewRenderer {
      * Get the currently configured item from the wand's NBT
      */
     private static ItemStack getConfiguredItem(ItemStack wand) {
-        CompoundTag cfg = WandNbt.getConfig(wand);
-        int selected = WandNbt.getSelectedSlot(cfg);
-        var handler = WandNbt.readInventory(cfg);
-
-        ItemStack target = handler.getStackInSlot(selected);
+        ItemStack target = WandConfigCache.get(wand).getSelectedStack();
         
         // Unwrap AE wrapped stacks
         if (target != null && !target.isEmpty()) {
@@ -3,6 +3,7 @@ package com.moakiee.meplacementtool.client;
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.mojang.blaze3d.vertex.VertexConsumer;
 import net.minecraft.client.Camera;
+import net.minecraft.client.multiplayer.ClientLevel;
 import net.minecraft.client.renderer.LevelRenderer;
 import net.minecraft.client.renderer.MultiBufferSource;
 import net.minecraft.client.renderer.RenderType;
@@ -10,7 +11,14 @@ import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.context.BlockPlaceContext;
+import net.minecraft.world.item.context.UseOnContext;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.BlockHitResult;
 import net.minecraft.world.phys.HitResult;
@@ -21,29 +29,53 @@ import com.moakiee.meplacementtool.ItemMultiblockPlacementTool;
 import com.moakiee.meplacementtool.ItemMultiblockPlacementTool.DirectionMode;
 import com.moakiee.meplacementtool.MEPlacementToolMod;
 import com.moakiee.meplacementtool.PlacementBfs;
+import com.moakiee.meplacementtool.ReplaceabilityCache;
+import com.moakiee.meplacementtool.WandConfigCache;
 import com.moakiee.meplacementtool.WandNbt;
 
 import appeng.api.parts.IPart;
+import appeng.api.parts.IPartHost;
 import appeng.api.parts.IPartItem;
 import appeng.api.parts.PartHelper;
 import appeng.api.stacks.GenericStack;
 import appeng.parts.BusCollisionHelper;
 import appeng.parts.PartPlacement;
+
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.function.Predicate;
 
 import net.minecraft.nbt.CompoundTag;
-import net.minecraftforge.items.ItemStackHandler;
+import org.jetbrains.annotations.Nullable;
 
 public class MultiblockPreviewRenderer
 {
+    // Half-size of the snapshot around the start point in AUTO mode; the preview stops at its edge
+    private static final int SNAPSHOT_RADIUS = 48;
+
+    private final PreviewWorker<Preview> worker = new PreviewWorker<>("ME Placement Tool multiblock preview");
     private BlockHitResult lastRayTraceResult;
-    private CompoundTag lastWandTag;
-    private Set<BlockPos> cachedPositions;
+    private Level lastLevel;
+    private CompoundTag lastConfigTag;
+    private long lastConfigRevision;
     private int lastPlacementCount;
     private DirectionMode lastDirectionMode;
+    // Snapshot the last request read from; reused by the next one while the world around it is unchanged
+    private SectionSnapshot snapshot;
+    private boolean snapshotUsesBlockEntities;
+
+    /**
+     * A completed preview. Rendering uses the stack and side the search ran with, not the current config,
+     * so that a result still matches itself while a newer one is being computed.
+     */
+    private record Preview(List<BlockPos> positions, ItemStack target, @Nullable Direction partSide) {
+    }
+
+    /**
+     * Identifies what the per-state and per-block-entity flags of a snapshot were computed for.
+     */
+    private record FlagKey(@Nullable Item part, @Nullable Direction partSide, Direction face, boolean inside) {
+    }
 
     @SubscribeEvent(priority = EventPriority.HIGH, receiveCanceled = true)
     public void renderBlockHighlight(RenderHighlightEvent.Block event) {
@@ -52,45 +84,46 @@ public class MultiblockPreviewRenderer
         BlockHitResult rtr = event.getTarget();
         Entity entity = event.getCamera().getEntity();
         if(!(entity instanceof Player player)) return;
+        if(!(player.level() instanceof ClientLevel level)) return;
 
         ItemStack wand = player.getMainHandItem();
         if(wand.isEmpty() || wand.getItem() != MEPlacementToolMod.MULTIBLOCK_PLACEMENT_TOOL.get()) return;
 
         int placementCount = ItemMultiblockPlacementTool.getPlacementCount(wand);
         DirectionMode directionMode = ItemMultiblockPlacementTool.getDirectionMode(wand);
+        CompoundTag configTag = WandNbt.getConfig(wand);
+        long configRevision = WandConfigCache.getRevision();
 
-        Set<BlockPos> blocks;
-        if(cachedPositions == null || !compareRTR(lastRayTraceResult, rtr)
-                || !java.util.Objects.equals(lastWandTag, wand.getTag())
+        if(!compareRTR(lastRayTraceResult, rtr)
+                || lastLevel != level
+                || lastConfigTag != configTag
+                || lastConfigRevision != configRevision
                 || lastPlacementCount != placementCount
-                || lastDirectionMode != directionMode) {
-            blocks = calculatePlacementPositions(player, rtr, wand, placementCount, directionMode);
-            cachedPositions = blocks;
+                || lastDirectionMode != directionMode
+                || (snapshot != null && !snapshot.isCurrent())) {
+            submitPreview(player, level, rtr, wand, placementCount, directionMode);
             lastRayTraceResult = rtr;
-            lastWandTag = wand.getTag() != null ? wand.getTag().copy() : null;
+            lastLevel = level;
+            lastConfigTag = configTag;
+            lastConfigRevision = configRevision;
             lastPlacementCount = placementCount;
             lastDirectionMode = directionMode;
-        } else {
-            blocks = cachedPositions;
         }
 
-        if(blocks == null || blocks.isEmpty()) return;
+        // Whatever finished last; the request above shows up a frame or two later
+        Preview preview = worker.getLatest();
+        if(preview == null || preview.positions().isEmpty()) return;
 
         PoseStack ms = event.getPoseStack();
         MultiBufferSource buffer = event.getMultiBufferSource();
 
         Camera camera = event.getCamera();
 
-        ItemStack target = getSelectedTargetStack(wand);
-        if(target.getItem() instanceof IPartItem<?> partItem) {
-            var placement = getPartPlacementWithCableFallback(player, player.level(), target, rtr.getBlockPos(),
-                    rtr.getDirection(), rtr.getLocation());
-            if(placement != null) {
-                IPart part = partItem.createPart();
-                for(BlockPos block : blocks) {
-                    renderPart(ms, buffer, camera, block, part, placement.side(), false);
-                    renderPart(ms, buffer, camera, block, part, placement.side(), true);
-                }
+        if(preview.target().getItem() instanceof IPartItem<?> partItem) {
+            IPart part = partItem.createPart();
+            for(BlockPos block : preview.positions()) {
+                renderPart(ms, buffer, camera, block, part, preview.partSide(), false);
+                renderPart(ms, buffer, camera, block, part, preview.partSide(), true);
             }
         } else {
             VertexConsumer lineBuilder = buffer.getBuffer(RenderType.LINES);
@@ -98,7 +131,7 @@ public class MultiblockPreviewRenderer
             double camY = camera.getPosition().y;
             double camZ = camera.getPosition().z;
             // Render all blocks with cyan/blue color (original style)
-            for(BlockPos block : blocks) {
+            for(BlockPos block : preview.positions()) {
                 AABB aabb = new AABB(block).move(-camX, -camY, -camZ);
                 LevelRenderer.renderLineBox(ms, lineBuilder, aabb, 0.0F, 0.75F, 1.0F, 0.4F);
             }
@@ -107,58 +140,114 @@ public class MultiblockPreviewRenderer
         event.setCanceled(true);
     }
 
-    private Set<BlockPos> calculatePlacementPositions(Player player, BlockHitResult rtr, ItemStack wand,
+    /**
+     * Snapshot the blocks around the clicked position and queue the search. Everything that needs the live
+     * level (placement contexts, AE2 part checks) is evaluated here, per block state and per part host,
+     * so the search itself only reads the snapshot.
+     */
+    private void submitPreview(Player player, ClientLevel level, BlockHitResult rtr, ItemStack wand,
             int placementCount, DirectionMode directionMode) {
-        Set<BlockPos> placePositions = new HashSet<>();
-        if(placementCount <= 0) return placePositions;
-
-        var level = player.level();
         BlockPos clickedPos = rtr.getBlockPos();
-        var clickedFace = rtr.getDirection();
-        var clickedState = level.getBlockState(clickedPos);
+        Direction clickedFace = rtr.getDirection();
+        Block clickedBlock = level.getBlockState(clickedPos).getBlock();
         ItemStack target = getSelectedTargetStack(wand);
 
+        if(placementCount <= 0) {
+            snapshot = null;
+            worker.submit(cancelled -> new Preview(List.of(), target, null));
+            return;
+        }
+
         if(target.getItem() instanceof IPartItem<?>) {
             var placement = getPartPlacementWithCableFallback(player, level, target, clickedPos, clickedFace, rtr.getLocation());
-            if(placement == null) return placePositions;
+            if(placement == null) {
+                snapshot = null;
+                worker.submit(cancelled -> new Preview(List.of(), target, null));
+                return;
+            }
 
             Direction partSide = placement.side();
-            boolean placingOnClickedHost = placement.pos().equals(clickedPos);
+            BlockPos start = placement.pos();
+            boolean placingOnClickedHost = start.equals(clickedPos);
+            // A centre part (side == null) may also go into empty space; entity collisions are not previewed
+            SectionSnapshot snap = getSnapshot(level, start, placementCount, clickedFace, directionMode,
+                    new FlagKey(target.getItem(), partSide, clickedFace, rtr.isInside()),
+                    state -> partSide == null && state.canBeReplaced(), IPartHost.class,
+                    blockEntity -> canPlaceConfiguredPartOnCable(player, level, target, blockEntity.getBlockPos(), partSide));
+
+            worker.submit(cancelled -> new Preview(PlacementBfs.findPositions(
+                    start, placementCount, clickedFace, directionMode,
+                    candidate -> {
+                        PreviewWorker.checkCancelled(cancelled);
+                        if (placingOnClickedHost) {
+                            return snap.getBlockState(candidate).getBlock() == clickedBlock;
+                        } else {
+                            return snap.getBlockState(candidate.relative(partSide)).getBlock() == clickedBlock;
+                        }
+                    },
+                    candidate -> snap.contains(candidate)
+                            && (snap.isBlockEntityFlagged(candidate) || snap.isStateFlagged(candidate))
+            ), target, partSide));
+            return;
+        }
+
+        BlockPos start = clickedPos.relative(clickedFace);
+        var checkContext = new BlockPlaceContext(new UseOnContext(
+                player, player.getUsedItemHand(), new BlockHitResult(
+                        rtr.getLocation(), rtr.getDirection(), start, rtr.isInside()
+                )
+        ));
+        var replaceability = ReplaceabilityCache.forItem(checkContext.getItemInHand().getItem());
+        SectionSnapshot snap = getSnapshot(level, start, placementCount, clickedFace, directionMode,
+                new FlagKey(null, null, clickedFace, rtr.isInside()),
+                state -> switch (replaceability.classify(state)) {
+                    case ALWAYS -> true;
+                    case NEVER -> false;
+                    case CONTEXT -> state.isAir() || state.canBeReplaced(checkContext);
+                },
+                null, null);
 
-            var foundPositions = PlacementBfs.findPositions(
-                placement.pos(), placementCount, clickedFace, directionMode,
+        worker.submit(cancelled -> new Preview(PlacementBfs.findPositions(
+                start, placementCount, clickedFace, directionMode,
                 candidate -> {
-                    if (placingOnClickedHost) {
-                        return level.getBlockState(candidate).getBlock() == clickedState.getBlock();
-                    } else {
-                        return level.getBlockState(candidate.relative(partSide)).getBlock() == clickedState.getBlock();
-                    }
+                    PreviewWorker.checkCancelled(cancelled);
+                    return snap.getBlockState(candidate.relative(clickedFace.getOpposite())).getBlock() == clickedBlock;
                 },
-                candidate -> canPlaceConfiguredPartOnCable(player, level, target, candidate, partSide)
-            );
-            placePositions.addAll(foundPositions);
-            return placePositions;
-        }
+                candidate -> snap.contains(candidate) && snap.isStateFlagged(candidate)
+        ), target, null));
+    }
 
-        var foundPositions = PlacementBfs.findPositions(
-            clickedPos.relative(clickedFace), placementCount, clickedFace, directionMode,
-            candidate -> level.getBlockState(candidate.relative(clickedFace.getOpposite())).getBlock() == clickedState.getBlock(),
-            candidate -> {
-                boolean canPlace = level.isEmptyBlock(candidate);
-                if (!canPlace) {
-                    try {
-                        var checkContext = new net.minecraft.world.item.context.BlockPlaceContext(new net.minecraft.world.item.context.UseOnContext(
-                            player, player.getUsedItemHand(), new net.minecraft.world.phys.BlockHitResult(
-                                rtr.getLocation(), rtr.getDirection(), candidate, rtr.isInside()
-                            )
-                        ));
-                        canPlace = level.getBlockState(candidate).canBeReplaced(checkContext);
-                    } catch (Exception ignored) {}
-                }
-                return canPlace;
+    /**
+     * The previous snapshot if it covers the area the search can reach, otherwise a new capture.
+     * AUTO mode spreads in the clicked face's plane (capped at {@link #SNAPSHOT_RADIUS}); the locked modes
+     * run along one axis. The checkers look one block off the candidate, hence the margin of 1.
+     */
+    private SectionSnapshot getSnapshot(ClientLevel level, BlockPos start, int placementCount, Direction face,
+            DirectionMode directionMode, FlagKey flagKey, Predicate<BlockState> stateFlag,
+            @Nullable Class<?> blockEntityType, @Nullable Predicate<BlockEntity> blockEntityFlag) {
+        int rx = 1, ry = 1, rz = 1;
+        switch(directionMode) {
+            case NORTH_SOUTH -> rz = placementCount + 1;
+            case EAST_WEST -> rx = placementCount + 1;
+            case VERTICAL -> ry = placementCount + 1;
+            default -> {
+                int r = Math.min(placementCount, SNAPSHOT_RADIUS) + 1;
+                rx = face.getAxis() == Direction.Axis.X ? 1 : r;
+                ry = face.getAxis() == Direction.Axis.Y ? 1 : r;
+                rz = face.getAxis() == Direction.Axis.Z ? 1 : r;
             }
-        );
-        return new HashSet<>(foundPositions);
+        }
+
+        int minX = start.getX() - rx, minY = start.getY() - ry, minZ = start.getZ() - rz;
+        int maxX = start.getX() + rx, maxY = start.getY() + ry, maxZ = start.getZ() + rz;
+        boolean usesBlockEntities = blockEntityFlag != null;
+        if(snapshot == null || snapshotUsesBlockEntities != usesBlockEntities
+                || !snapshot.canReuse(level, minX, minY, minZ, maxX, maxY, maxZ, flagKey)) {
+            snapshot = SectionSnapshot.capture(level, minX, minY, minZ, maxX, maxY, maxZ, flagKey, stateFlag,
+                    blockEntityType, blockEntityFlag);
+            snapshotUsesBlockEntities = usesBlockEntities;
+        }
+        return snapshot;
     }
 
     private boolean canPlaceConfiguredPartOnCable(Player player, net.minecraft.world.level.Level level,
@@ -195,10 +284,7 @@ public class MultiblockPreviewRenderer
             return ItemStack.EMPTY;
         }
 
-        int selected = WandNbt.getSelectedSlot(cfg);
-        ItemStackHandler handler = WandNbt.readInventory(cfg);
-
-        ItemStack target = handler.getStackInSlot(selected);
+        ItemStack target = WandConfigCache.get(cfg).getSelectedStack();
         if(!target.isEmpty()) {
             try {
                 var genericStack = GenericStack.unwrapItemStack(target);
@@ -231,9 +317,11 @@ public class MultiblockPreviewRenderer
     }
 
     public void reset() {
-        cachedPositions = null;
+        worker.clear();
+        snapshot = null;
         lastRayTraceResult = null;
-        lastWandTag = null;
+        lastLevel = null;
+        lastConfigTag = null;
         lastPlacementCount = 0;
         lastDirectionMode = null;
     }
@@ -0,0 +1,91 @@
+package com.moakiee.meplacementtool.client;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import com.mojang.logging.LogUtils;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+
+/**
+ * Runs preview computations on a single background thread, so the render thread never waits on a search.
+ * <p>
+ * At most one request waits in the queue: a new submission replaces it, and the request that is running is
+ * told to stop through the {@link BooleanSupplier} it was given (tasks may also throw
+ * {@link CancellationException}). The render thread reads {@link #getLatest()}, the last result that
+ * completed without being superseded.
+ */
+public final class PreviewWorker<T> {
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong generation = new AtomicLong();
+    private volatile T latest;
+
+    public PreviewWorker(String name) {
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+                runnable -> {
+                    Thread thread = new Thread(runnable, name);
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardOldestPolicy());
+    }
+
+    /**
+     * Queue a computation, cancelling whatever was submitted before. The task receives a cancellation flag
+     * that it should poll while it works.
+     */
+    public void submit(Function<BooleanSupplier, T> task) {
+        long gen = generation.incrementAndGet();
+        BooleanSupplier cancelled = () -> generation.get() != gen;
+        executor.execute(() -> {
+            if (cancelled.getAsBoolean()) return;
+            try {
+                T result = task.apply(cancelled);
+                publish(gen, result);
+            } catch (CancellationException ignored) {
+            } catch (Exception e) {
+                LOGGER.debug("Preview computation failed", e);
+            }
+        });
+    }
+
+    private synchronized void publish(long gen, T result) {
+        if (generation.get() == gen) {
+            latest = result;
+        }
+    }
+
+    /**
+     * The last completed result, or null if there is none yet.
+     */
+    @Nullable
+    public T getLatest() {
+        return latest;
+    }
+
+    /**
+     * Cancel pending work and forget the last result.
+     */
+    public synchronized void clear() {
+        generation.incrementAndGet();
+        latest = null;
+    }
+
+    /**
+     * Throw {@link CancellationException} if {@code cancelled} is set; for use inside search callbacks.
+     */
+    public static void checkCancelled(BooleanSupplier cancelled) {
+        if (cancelled.getAsBoolean()) {
+            throw new CancellationException();
+        }
+    }
+}
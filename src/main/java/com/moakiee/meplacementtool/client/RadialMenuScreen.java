@@ -11,10 +11,10 @@ import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.chat.Component;
 import net.minecraft.util.Mth;
 import net.minecraft.world.item.ItemStack;
-import net.minecraftforge.items.ItemStackHandler;
 import appeng.api.stacks.GenericStack;
 import appeng.api.stacks.AEFluidKey;
 import com.moakiee.meplacementtool.MEPlacementToolMod;
+import com.moakiee.meplacementtool.WandConfigCache;
 import com.moakiee.meplacementtool.WandMenu;
 import com.moakiee.meplacementtool.WandNbt;
 import com.moakiee.meplacementtool.network.ModNetwork;
@@ -73,15 +73,13 @@ public class RadialMenuScreen extends Screen {
         CompoundTag cfg = WandNbt.getConfig(wandStack);
         if (cfg == null) return;
 
-        ItemStackHandler handler = WandNbt.readInventory(cfg);
+        WandConfigCache.WandConfig config = WandConfigCache.get(cfg);
 
-        CompoundTag fluids = cfg.contains("fluids") ? cfg.getCompound("fluids") : new CompoundTag();
-
-        // Use actual slot count from handler (may be 9 for old data or 18 for new data)
-        int slotCount = handler.getSlots();
+        // Use actual slot count from the config (may be 9 for old data or 18 for new data)
+        int slotCount = config.getSlots();
         for (int i = 0; i < slotCount; i++) {
-            ItemStack stack = handler.getStackInSlot(i);
-            String fluidId = fluids.getString(Integer.toString(i));
+            ItemStack stack = config.getStack(i);
+            String fluidId = config.getFluidId(i);
 
             if (!stack.isEmpty()) {
                 // Check if it's an AE wrapped fluid
@@ -132,6 +130,7 @@ public class RadialMenuScreen extends Screen {
         CompoundTag cfg = data.contains(WandMenu.TAG_KEY) ? data.getCompound(WandMenu.TAG_KEY).copy() : new CompoundTag();
         cfg.putInt("SelectedSlot", slotIndex);
         data.put(WandMenu.TAG_KEY, cfg);
+        WandConfigCache.invalidate();
 
         // Send to server
         ModNetwork.CHANNEL.sendToServer(new UpdateWandConfigPacket(cfg));
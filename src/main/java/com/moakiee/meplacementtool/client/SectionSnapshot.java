@@ -0,0 +1,207 @@
+package com.moakiee.meplacementtool.client;
+
+import java.util.Objects;
+import java.util.function.Predicate;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Reference2BooleanOpenHashMap;
+
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+
+/**
+ * An immutable copy of the block states in a box of client chunk sections, so that preview searches can run
+ * on a background thread.
+ * <p>
+ * Anything that needs more than a block state (a {@link net.minecraft.world.item.context.BlockPlaceContext},
+ * a part host) is evaluated on the render thread while capturing: once per distinct block state found in the
+ * sections' palettes and once per block entity of the given type. Positions outside the box read as void air.
+ */
+public final class SectionSnapshot {
+
+    private final ClientLevel level;
+    private final int minSectionX, minSectionY, minSectionZ;
+    private final int maxSectionX, maxSectionY, maxSectionZ;
+    private final Object flagKey;
+    private final long changeCount;
+    private final long worldRevision;
+
+    // Missing key: unloaded or outside the box; null value: all air
+    private final Long2ObjectOpenHashMap<PalettedContainer<BlockState>> sections = new Long2ObjectOpenHashMap<>();
+    private final Reference2BooleanOpenHashMap<BlockState> stateFlags = new Reference2BooleanOpenHashMap<>();
+    private final LongOpenHashSet flaggedBlockEntities = new LongOpenHashSet();
+    // Sections holding a block entity of the flagged type, whose flag may change without a block state change
+    private final LongOpenHashSet blockEntitySections = new LongOpenHashSet();
+
+    private SectionSnapshot(ClientLevel level, int minSectionX, int minSectionY, int minSectionZ,
+            int maxSectionX, int maxSectionY, int maxSectionZ, Object flagKey) {
+        this.level = level;
+        this.minSectionX = minSectionX;
+        this.minSectionY = minSectionY;
+        this.minSectionZ = minSectionZ;
+        this.maxSectionX = maxSectionX;
+        this.maxSectionY = maxSectionY;
+        this.maxSectionZ = maxSectionZ;
+        this.flagKey = flagKey;
+        this.changeCount = ClientWorldRevision.getChangeCount();
+        this.worldRevision = ClientWorldRevision.get();
+    }
+
+    /**
+     * Copy the sections covering the given block box. Render thread only.
+     *
+     * @param flagKey           identifies the two predicates, so that {@link #canReuse} knows when they differ
+     * @param stateFlag         evaluated once per distinct block state
+     * @param blockEntityType   the block entities {@code blockEntityFlag} applies to, or null if not needed
+     * @param blockEntityFlag   evaluated once per block entity of {@code blockEntityType} in the box
+     */
+    public static SectionSnapshot capture(ClientLevel level, int minX, int minY, int minZ, int maxX, int maxY, int maxZ,
+            Object flagKey, Predicate<BlockState> stateFlag, @Nullable Class<?> blockEntityType,
+            @Nullable Predicate<BlockEntity> blockEntityFlag) {
+        SectionSnapshot snapshot = new SectionSnapshot(level,
+                SectionPos.blockToSectionCoord(minX),
+                Math.max(SectionPos.blockToSectionCoord(minY), level.getMinSection()),
+                SectionPos.blockToSectionCoord(minZ),
+                SectionPos.blockToSectionCoord(maxX),
+                Math.min(SectionPos.blockToSectionCoord(maxY), level.getMaxSection() - 1),
+                SectionPos.blockToSectionCoord(maxZ),
+                flagKey);
+        snapshot.copyFrom(stateFlag, blockEntityType, blockEntityFlag);
+        return snapshot;
+    }
+
+    private void copyFrom(Predicate<BlockState> stateFlag, @Nullable Class<?> blockEntityType,
+            @Nullable Predicate<BlockEntity> blockEntityFlag) {
+        flagState(Blocks.AIR.defaultBlockState(), stateFlag);
+        flagState(Blocks.VOID_AIR.defaultBlockState(), stateFlag);
+
+        for (int cx = minSectionX; cx <= maxSectionX; cx++) {
+            for (int cz = minSectionZ; cz <= maxSectionZ; cz++) {
+                LevelChunk chunk = level.getChunkSource().getChunk(cx, cz, false);
+                if (chunk == null) continue;
+
+                for (int sy = minSectionY; sy <= maxSectionY; sy++) {
+                    LevelChunkSection section = chunk.getSection(chunk.getSectionIndexFromSectionY(sy));
+                    long key = SectionPos.asLong(cx, sy, cz);
+                    if (section.hasOnlyAir()) {
+                        sections.put(key, null);
+                        continue;
+                    }
+                    PalettedContainer<BlockState> states = section.getStates().copy();
+                    states.count((state, count) -> flagState(state, stateFlag));
+                    sections.put(key, states);
+                }
+
+                if (blockEntityType != null && blockEntityFlag != null) {
+                    for (BlockEntity blockEntity : chunk.getBlockEntities().values()) {
+                        BlockPos pos = blockEntity.getBlockPos();
+                        int sy = SectionPos.blockToSectionCoord(pos.getY());
+                        if (sy < minSectionY || sy > maxSectionY || !blockEntityType.isInstance(blockEntity)) continue;
+                        blockEntitySections.add(SectionPos.asLong(cx, sy, cz));
+                        if (blockEntityFlag.test(blockEntity)) {
+                            flaggedBlockEntities.add(pos.asLong());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void flagState(BlockState state, Predicate<BlockState> stateFlag) {
+        if (!stateFlags.containsKey(state)) {
+            boolean flag;
+            try {
+                flag = stateFlag.test(state);
+            } catch (Exception e) {
+                flag = false;
+            }
+            stateFlags.put(state, flag);
+        }
+    }
+
+    /**
+     * Whether this snapshot can answer for the given box: same level and flags, the box is inside the
+     * snapshot, and the live world still matches it (see {@link #isCurrent}).
+     */
+    public boolean canReuse(ClientLevel level, int minX, int minY, int minZ, int maxX, int maxY, int maxZ,
+            Object flagKey) {
+        if (level != this.level || !Objects.equals(flagKey, this.flagKey)) return false;
+        if (SectionPos.blockToSectionCoord(minX) < minSectionX || SectionPos.blockToSectionCoord(maxX) > maxSectionX
+                || SectionPos.blockToSectionCoord(minZ) < minSectionZ || SectionPos.blockToSectionCoord(maxZ) > maxSectionZ
+                || Math.max(SectionPos.blockToSectionCoord(minY), level.getMinSection()) < minSectionY
+                || Math.min(SectionPos.blockToSectionCoord(maxY), level.getMaxSection() - 1) > maxSectionY) {
+            return false;
+        }
+        return isCurrent();
+    }
+
+    /**
+     * Whether the live world still matches this snapshot: no block in it changed since the capture. A
+     * snapshot that flagged block entities is also dropped on every coarse {@link ClientWorldRevision} bump,
+     * as block entity data is not tracked per section, but only if the box held a block entity of the flagged
+     * type; one appearing later changes a block state. Render thread only.
+     */
+    public boolean isCurrent() {
+        if (!blockEntitySections.isEmpty() && worldRevision != ClientWorldRevision.get()) return false;
+        // Walk the whole box rather than the captured sections, so chunks loaded since count as changes
+        for (int sx = minSectionX; sx <= maxSectionX; sx++) {
+            for (int sy = minSectionY; sy <= maxSectionY; sy++) {
+                for (int sz = minSectionZ; sz <= maxSectionZ; sz++) {
+                    if (ClientWorldRevision.sectionChangedSince(SectionPos.asLong(sx, sy, sz), changeCount)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether {@code pos} lies inside the captured box (loaded or not).
+     */
+    public boolean contains(BlockPos pos) {
+        int sx = SectionPos.blockToSectionCoord(pos.getX());
+        int sy = SectionPos.blockToSectionCoord(pos.getY());
+        int sz = SectionPos.blockToSectionCoord(pos.getZ());
+        return sx >= minSectionX && sx <= maxSectionX && sy >= minSectionY && sy <= maxSectionY
+                && sz >= minSectionZ && sz <= maxSectionZ;
+    }
+
+    public BlockState getBlockState(int x, int y, int z) {
+        long key = SectionPos.asLong(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(y),
+                SectionPos.blockToSectionCoord(z));
+        if (!sections.containsKey(key)) {
+            return Blocks.VOID_AIR.defaultBlockState();
+        }
+        PalettedContainer<BlockState> states = sections.get(key);
+        return states == null ? Blocks.AIR.defaultBlockState() : states.get(x & 15, y & 15, z & 15);
+    }
+
+    public BlockState getBlockState(BlockPos pos) {
+        return getBlockState(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    /**
+     * The state predicate given to {@link #capture}, for the state at {@code pos}.
+     */
+    public boolean isStateFlagged(BlockPos pos) {
+        return stateFlags.getBoolean(getBlockState(pos));
+    }
+
+    /**
+     * The block entity predicate given to {@link #capture}, for the block entity at {@code pos} (false if none).
+     */
+    public boolean isBlockEntityFlagged(BlockPos pos) {
+        return flaggedBlockEntities.contains(pos.asLong());
+    }
+}
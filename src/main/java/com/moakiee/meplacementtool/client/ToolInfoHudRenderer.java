@@ -4,6 +4,7 @@ import com.moakiee.meplacementtool.ClientConfig;
 import com.moakiee.meplacementtool.ItemMECablePlacementTool;
 import com.moakiee.meplacementtool.ItemMEPlacementTool;
 import com.moakiee.meplacementtool.ItemMultiblockPlacementTool;
+import com.moakiee.meplacementtool.WandConfigCache;
 import com.moakiee.meplacementtool.WandNbt;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
@@ -125,10 +126,7 @@ public class ToolInfoHudRenderer {
             return;
         }
 
-        int selected = WandNbt.getSelectedSlot(cfg);
-        var handler = WandNbt.readInventory(cfg);
-
-        ItemStack target = handler.getStackInSlot(selected);
+        ItemStack target = WandConfigCache.get(cfg).getSelectedStack();
         if (target != null && !target.isEmpty()) {
             String itemName = target.getHoverName().getString();
             lines.add(Component.translatable("meplacementtool.hud.item", itemName).getString());
@@ -222,6 +220,7 @@ public class ToolInfoHudRenderer {
             case LINE -> Component.translatable("meplacementtool.mode.line").getString();
             case PLANE_FILL -> Component.translatable("meplacementtool.mode.plane_fill").getString();
             case PLANE_BRANCHING -> Component.translatable("meplacementtool.mode.plane_branching").getString();
+            case ROUTE -> Component.translatable("meplacementtool.mode.route").getString();
         };
     }
 
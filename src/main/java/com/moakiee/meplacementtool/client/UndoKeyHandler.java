@@ -2,6 +2,7 @@ package com.moakiee.meplacementtool.client;
 
 import com.mojang.blaze3d.platform.InputConstants;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.screens.Screen;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.phys.BlockHitResult;
@@ -25,12 +26,12 @@ public class UndoKeyHandler
         if(mainHand.isEmpty() || !holdingUndoableTool) return;
 
         if(event.getButton() == 0 && event.getAction() == InputConstants.PRESS) {
-            // Use configurable keybinding instead of hard-coded Ctrl checks
+            // Use configurable keybinding instead of hard-coded Ctrl checks; with Shift held as well it redoes
             if (ModKeyBindings.UNDO_MODIFIER.isDown()) {
                 HitResult hitResult = Minecraft.getInstance().hitResult;
                 if(hitResult != null && hitResult.getType() == HitResult.Type.BLOCK) {
                     BlockHitResult blockHitResult = (BlockHitResult) hitResult;
-                    ModNetwork.CHANNEL.sendToServer(new UndoPacket(blockHitResult.getBlockPos()));
+                    ModNetwork.CHANNEL.sendToServer(new UndoPacket(blockHitResult.getBlockPos(), Screen.hasShiftDown()));
                     event.setCanceled(true);
                 }
             }
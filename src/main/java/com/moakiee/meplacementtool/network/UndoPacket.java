@@ -13,17 +13,21 @@ import java.util.function.Supplier;
 public class UndoPacket
 {
     public BlockPos pos;
+    // Place the last undone placement again instead of undoing
+    public boolean redo;
 
-    public UndoPacket(BlockPos pos) {
+    public UndoPacket(BlockPos pos, boolean redo) {
         this.pos = pos;
+        this.redo = redo;
     }
 
     public static void encode(UndoPacket msg, FriendlyByteBuf buffer) {
         buffer.writeBlockPos(msg.pos);
+        buffer.writeBoolean(msg.redo);
     }
 
     public static UndoPacket decode(FriendlyByteBuf buffer) {
-        return new UndoPacket(buffer.readBlockPos());
+        return new UndoPacket(buffer.readBlockPos(), buffer.readBoolean());
     }
 
     public static class Handler
@@ -33,9 +37,20 @@ public class UndoPacket
                 ServerPlayer player = ctx.get().getSender();
                 if(player == null) return;
 
-                UndoHistory.UndoResult result = MEPlacementToolMod.instance.undoHistory.undoWithResult(player, player.level(), msg.pos);
+                // Don't undo underneath a placement that is still being spread over ticks
+                if (MEPlacementToolMod.instance.placementJobs.isBusy(player)) {
+                    player.displayClientMessage(Component.translatable("message.meplacementtool.placement_in_progress"), true);
+                    return;
+                }
+
+                UndoHistory undoHistory = MEPlacementToolMod.instance.undoHistory;
+                UndoHistory.UndoResult result = msg.redo
+                        ? undoHistory.redoWithResult(player, player.level(), msg.pos)
+                        : undoHistory.undoWithResult(player, player.level(), msg.pos);
                 if (result == UndoHistory.UndoResult.MEMORY_CARD_APPLIED) {
                     player.displayClientMessage(Component.translatable("message.meplacementtool.cannot_undo_memory_card"), true);
+                } else if (result == UndoHistory.UndoResult.MISSING_ITEMS) {
+                    player.displayClientMessage(Component.translatable("message.meplacementtool.cannot_redo_missing_items"), true);
                 }
             });
             ctx.get().setPacketHandled(true);
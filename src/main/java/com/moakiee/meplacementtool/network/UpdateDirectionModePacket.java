@@ -1,6 +1,7 @@
 package com.moakiee.meplacementtool.network;
 
 import com.moakiee.meplacementtool.ItemMultiblockPlacementTool;
+import com.moakiee.meplacementtool.WandConfigCache;
 import com.moakiee.meplacementtool.WandMenu;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.FriendlyByteBuf;
@@ -41,6 +42,7 @@ public class UpdateDirectionModePacket {
             CompoundTag cfg = data.contains(WandMenu.TAG_KEY) ? data.getCompound(WandMenu.TAG_KEY).copy() : new CompoundTag();
             cfg.putInt("DirectionMode", ItemMultiblockPlacementTool.DirectionMode.fromId(pkt.modeId).ordinal());
             data.put(WandMenu.TAG_KEY, cfg);
+            WandConfigCache.invalidate();
         });
         ctx.get().setPacketHandled(true);
     }
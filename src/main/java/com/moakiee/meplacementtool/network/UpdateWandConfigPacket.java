@@ -1,5 +1,6 @@
 package com.moakiee.meplacementtool.network;
 
+import com.moakiee.meplacementtool.WandConfigCache;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.server.level.ServerPlayer;
@@ -29,6 +30,7 @@ public class UpdateWandConfigPacket {
             var main = player.getMainHandItem();
             if (main.isEmpty()) return;
             main.getOrCreateTag().put("placement_config", pkt.tag);
+            WandConfigCache.invalidate();
         });
         ctx.get().setPacketHandled(true);
     }